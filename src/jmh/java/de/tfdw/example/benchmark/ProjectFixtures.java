@@ -0,0 +1,57 @@
+package de.tfdw.example.benchmark;
+
+import de.tfdw.example.dto.Project;
+import de.tfdw.example.dto.ProjectMember;
+import de.tfdw.example.model.ProjectEntity;
+import de.tfdw.example.model.ProjectMemberEntity;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+final class ProjectFixtures {
+
+    private static final Instant UPDATED_AT = Instant.parse("2023-09-01T12:00:00Z");
+
+    private ProjectFixtures() {
+    }
+
+    static List<ProjectMember> members(final int memberCount) {
+        return IntStream.range(0, memberCount)
+                .mapToObj(i -> new ProjectMember(
+                        new UUID(0, i),
+                        "First " + i,
+                        "Last " + i,
+                        "member" + i + "@example.com",
+                        "they/their",
+                        "Member description " + i,
+                        "images/member-" + i + ".png"
+                ))
+                .toList();
+    }
+
+    static List<ProjectMemberEntity> memberEntities(final int memberCount) {
+        return IntStream.range(0, memberCount)
+                .mapToObj(i -> new ProjectMemberEntity(
+                        "First " + i,
+                        "Last " + i,
+                        "member" + i + "@example.com",
+                        "they/their",
+                        "Member description " + i,
+                        "images/member-" + i + ".png"
+                ))
+                .toList();
+    }
+
+    static Project project(final int memberCount) {
+        return new Project(new UUID(1, memberCount), "Benchmark Project", "Benchmark Description", members(memberCount), 0L, UPDATED_AT);
+    }
+
+    static ProjectEntity projectEntity(final UUID id, final int memberCount) {
+        final ProjectEntity projectEntity = new ProjectEntity(id, "Benchmark Project", "Benchmark Description", memberEntities(memberCount));
+        projectEntity.setVersion(0L);
+        projectEntity.setUpdatedAt(UPDATED_AT);
+        return projectEntity;
+    }
+}
@@ -0,0 +1,101 @@
+package de.tfdw.example.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import de.tfdw.example.dto.Project;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares the representations the API can negotiate for a page of 100 projects. The payload sizes of
+ * the current parameters are reported as the secondary results {@code bytes} and {@code gzippedBytes} of
+ * {@link #serialize(PayloadSize)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProjectFormatBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private static final TypeReference<List<Project>> PROJECT_LIST = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"0", "10", "100"})
+    private int memberCount;
+
+    private ObjectMapper objectMapper;
+
+    private List<Project> projects;
+
+    private byte[] serializedProjects;
+
+    @Setup
+    public void setUp() throws IOException {
+        final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+        objectMapper = switch (format) {
+            case "cbor" -> jsonMapper.copyWith(new CBORFactory());
+            case "smile" -> jsonMapper.copyWith(new SmileFactory());
+            default -> jsonMapper;
+        };
+        projects = IntStream.range(0, PAGE_SIZE).mapToObj(i -> ProjectFixtures.project(memberCount)).toList();
+        serializedProjects = objectMapper.writeValueAsBytes(projects);
+    }
+
+    @Benchmark
+    public byte[] serialize(final PayloadSize payloadSize) throws IOException {
+        return objectMapper.writeValueAsBytes(projects);
+    }
+
+    @Benchmark
+    public List<Project> deserialize() throws IOException {
+        return objectMapper.readValue(serializedProjects, PROJECT_LIST);
+    }
+
+    /**
+     * The size is the same on every invocation, so it is set once per iteration rather than accumulated.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+
+        public long bytes;
+
+        public long gzippedBytes;
+
+        @Setup(Level.Iteration)
+        public void setUp(final ProjectFormatBenchmark benchmark) throws IOException {
+            bytes = benchmark.serializedProjects.length;
+            gzippedBytes = gzip(benchmark.serializedProjects).length;
+        }
+    }
+
+    private static byte[] gzip(final byte[] bytes) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            gzipOutputStream.write(bytes);
+        }
+        return outputStream.toByteArray();
+    }
+}
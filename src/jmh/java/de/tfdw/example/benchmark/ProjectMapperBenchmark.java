@@ -0,0 +1,39 @@
+package de.tfdw.example.benchmark;
+
+import de.tfdw.example.dto.Project;
+import de.tfdw.example.dto.ProjectMapper;
+import de.tfdw.example.model.ProjectEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProjectMapperBenchmark {
+
+    @Param({"0", "10", "100"})
+    private int memberCount;
+
+    private final ProjectMapper projectMapper = new ProjectMapper();
+
+    private ProjectEntity projectEntity;
+
+    @Setup
+    public void setUp() {
+        projectEntity = ProjectFixtures.projectEntity(UUID.randomUUID(), memberCount);
+    }
+
+    @Benchmark
+    public Project mapFromProjectEntity() {
+        return projectMapper.mapFromProjectEntity(projectEntity);
+    }
+}
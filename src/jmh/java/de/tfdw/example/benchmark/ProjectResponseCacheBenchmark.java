@@ -0,0 +1,57 @@
+package de.tfdw.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.tfdw.example.controller.ProjectResponseCache;
+import de.tfdw.example.dto.Project;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static de.tfdw.example.configuration.CacheConfig.PROJECT_RESPONSES;
+
+/**
+ * Serializing a cached project on every request against writing the bytes cached for it. Sampled so the
+ * tail latencies can be compared, not only the average.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProjectResponseCacheBenchmark {
+
+    @Param({"0", "10", "100"})
+    private int memberCount;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private ProjectResponseCache projectResponseCache;
+
+    private Project project;
+
+    @Setup
+    public void setUp() {
+        projectResponseCache = new ProjectResponseCache(true, new ConcurrentMapCacheManager(PROJECT_RESPONSES), objectMapper);
+        project = ProjectFixtures.project(memberCount);
+        projectResponseCache.serialize(project, MediaType.APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(project);
+    }
+
+    @Benchmark
+    public byte[] cached() {
+        return projectResponseCache.serialize(project, MediaType.APPLICATION_JSON);
+    }
+}
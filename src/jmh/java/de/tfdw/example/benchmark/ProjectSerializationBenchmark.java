@@ -0,0 +1,47 @@
+package de.tfdw.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.tfdw.example.dto.Project;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProjectSerializationBenchmark {
+
+    @Param({"0", "10", "100"})
+    private int memberCount;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Project project;
+
+    private byte[] serializedProject;
+
+    @Setup
+    public void setUp() throws IOException {
+        project = ProjectFixtures.project(memberCount);
+        serializedProject = objectMapper.writeValueAsBytes(project);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(project);
+    }
+
+    @Benchmark
+    public Project deserialize() throws IOException {
+        return objectMapper.readValue(serializedProject, Project.class);
+    }
+}
@@ -0,0 +1,89 @@
+package de.tfdw.example.benchmark;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.tfdw.example.dto.CursorPage;
+import de.tfdw.example.dto.Project;
+import de.tfdw.example.dto.ProjectMapper;
+import de.tfdw.example.model.ProjectEntity;
+import de.tfdw.example.repository.ProjectEntityRepository;
+import de.tfdw.example.service.ProjectService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures {@link ProjectService#listProjects} without a database. The repository is a Mockito mock that
+ * serves keyset pages from a sorted map, so only the service's own work and a constant dispatch overhead of
+ * the mock are timed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProjectServiceBenchmark {
+
+    private static final int PROJECT_COUNT = 10_000;
+
+    @Param({"0", "10", "100"})
+    private int memberCount;
+
+    @Param({"10", "100", "1000"})
+    private int limit;
+
+    private ProjectService projectService;
+
+    @Setup
+    public void setUp() {
+        final NavigableMap<UUID, ProjectEntity> projects = new TreeMap<>();
+        for (int i = 0; i < PROJECT_COUNT; i++) {
+            final UUID id = new UUID(2, i);
+            projects.put(id, ProjectFixtures.projectEntity(id, memberCount));
+        }
+        // members are only resolved when projects are created and transactions only used to get a single
+        // project, neither of which the benchmark does
+        projectService = new ProjectService(inMemoryRepository(projects), null, new ProjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), event -> {
+        }, null, Caffeine.newBuilder().buildAsync(), new SimpleMeterRegistry(), Duration.ofSeconds(5));
+    }
+
+    @Benchmark
+    public CursorPage<Project> listProjects() {
+        return projectService.listProjects(null, null, null, limit);
+    }
+
+    /**
+     * Any call other than {@code findPage} fails, so the benchmark cannot silently measure a default answer.
+     */
+    private static ProjectEntityRepository inMemoryRepository(final NavigableMap<UUID, ProjectEntity> projects) {
+        final ProjectEntityRepository repository = mock(ProjectEntityRepository.class, invocation -> {
+            throw new UnsupportedOperationException(invocation.getMethod().getName() + " is not supported by the in-memory repository");
+        });
+        doAnswer(invocation -> page(projects, invocation.getArgument(0), invocation.getArgument(3)))
+                .when(repository).findPage(any(), any(), any(), anyInt());
+        return repository;
+    }
+
+    private static List<ProjectEntity> page(final NavigableMap<UUID, ProjectEntity> projects, final UUID after, final int limit) {
+        final NavigableMap<UUID, ProjectEntity> remaining = Objects.isNull(after) ? projects : projects.tailMap(after, false);
+        return remaining.values().stream().limit(limit).toList();
+    }
+}
@@ -0,0 +1,64 @@
+package de.tfdw.example.benchmark;
+
+import de.tfdw.example.dto.Project;
+import de.tfdw.example.dto.ProjectMember;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Project} does not cascade validation to its members, so members are validated one by one, the
+ * same way a caller checking them would have to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProjectValidationBenchmark {
+
+    @Param({"0", "10", "100"})
+    private int memberCount;
+
+    private ValidatorFactory validatorFactory;
+
+    private Validator validator;
+
+    private Project project;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        project = ProjectFixtures.project(memberCount);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Project>> validateProject() {
+        return validator.validate(project);
+    }
+
+    @Benchmark
+    public void validateProjectMembers(final Blackhole blackhole) {
+        for (final ProjectMember projectMember : project.projectMembers()) {
+            blackhole.consume(validator.validate(projectMember));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package de.tfdw.example.configuration;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.cache.interceptor.SimpleCacheResolver;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig implements CachingConfigurer {
+
+    public static final String PROJECTS = "projects";
+
+    public static final String PROJECT_RESPONSES = "project-responses";
+
+    private final ObjectProvider<CacheManager> cacheManager;
+
+    public CacheConfig(final ObjectProvider<CacheManager> cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Puts and evictions of the cache annotations wait for the commit of the surrounding transaction, so a
+     * rolled back change never reaches the cache and a concurrent load cannot cache the state before it.
+     * Outside of a transaction they happen immediately.
+     */
+    @Override
+    public CacheResolver cacheResolver() {
+        return new SimpleCacheResolver(new TransactionAwareCacheManagerProxy(cacheManager.getObject()));
+    }
+
+    /**
+     * The project cache holds futures, so that {@code ProjectService#getProject} can share a load between
+     * concurrent misses and still bound how long the others wait for it. The cache annotations and the
+     * cache metrics use its synchronous view.
+     */
+    @Bean
+    public AsyncCache<Object, Object> projectCache(@Value("${spring.cache.caffeine.spec}") final String spec) {
+        return Caffeine.from(spec).buildAsync();
+    }
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> projectCacheCustomizer(final AsyncCache<Object, Object> projectCache) {
+        return cacheManager -> cacheManager.registerCustomCache(PROJECTS, projectCache.synchronous());
+    }
+}
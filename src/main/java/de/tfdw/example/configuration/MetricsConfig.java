@@ -0,0 +1,34 @@
+package de.tfdw.example.configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "project.service";
+
+    @Bean
+    public TimedAspect timedAspect(final MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public QueryCountingStatementInspector queryCountingStatementInspector() {
+        return new QueryCountingStatementInspector();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(final QueryCountingStatementInspector statementInspector) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementInspector);
+    }
+
+    @Bean
+    public QueryCountFilter queryCountFilter(final QueryCountingStatementInspector statementInspector, final MeterRegistry meterRegistry) {
+        return new QueryCountFilter(statementInspector, meterRegistry);
+    }
+}
@@ -0,0 +1,27 @@
+package de.tfdw.example.configuration;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Routes the reads of asynchronous work, like a {@code StreamingResponseBody}, the way
+ * {@link ReadYourWritesFilter} decided for the request that started it. The work runs on a thread of the async
+ * executor, which the filter's thread-local does not reach.
+ */
+public class PrimaryRequiredCallableInterceptor implements CallableProcessingInterceptor {
+
+    @Override
+    public <T> void preProcess(final NativeWebRequest request, final Callable<T> task) {
+        if (Boolean.TRUE.equals(request.getAttribute(ReadYourWritesFilter.PRIMARY_REQUIRED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST))) {
+            ReplicaRoutingDataSource.setPrimaryRequired(true);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(final NativeWebRequest request, final Callable<T> task, final Object concurrentResult) {
+        ReplicaRoutingDataSource.setPrimaryRequired(false);
+    }
+}
@@ -0,0 +1,49 @@
+package de.tfdw.example.configuration;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Records how many SQL statements a request caused through Hibernate, tagged like
+ * {@code http.server.requests}, so query counts can be compared per endpoint and outcome. See
+ * {@link QueryCountingStatementInspector} for what is not counted.
+ */
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final QueryCountingStatementInspector statementInspector;
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryCountFilter(final QueryCountingStatementInspector statementInspector, final MeterRegistry meterRegistry) {
+        this.statementInspector = statementInspector;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain)
+            throws ServletException, IOException {
+        statementInspector.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            final int statements = statementInspector.stop();
+            final Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("http.server.requests.queries")
+                    .description("SQL statements Hibernate prepared per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", Objects.isNull(uri) ? "UNKNOWN" : uri.toString())
+                    .tag("status", Integer.toString(response.getStatus()))
+                    .register(meterRegistry)
+                    .record(statements);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package de.tfdw.example.configuration;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Objects;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #start()} and
+ * {@link #stop()}. Statements outside of such a window are not counted.
+ * <p>
+ * Only Hibernate's statements are seen here. Statements sent through {@code JdbcTemplate}, like the outbox
+ * reads and writes, or through R2DBC are not part of the count.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    private final ThreadLocal<int[]> statementCount = new ThreadLocal<>();
+
+    @Override
+    public String inspect(final String sql) {
+        final int[] count = statementCount.get();
+        if (Objects.nonNull(count)) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public void start() {
+        statementCount.set(new int[1]);
+    }
+
+    public int stop() {
+        final int[] count = statementCount.get();
+        statementCount.remove();
+        return Objects.isNull(count) ? 0 : count[0];
+    }
+}
@@ -0,0 +1,94 @@
+package de.tfdw.example.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.server.WebFilter;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+import java.util.Set;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+
+/**
+ * Counterpart of {@link WebConfig} for the {@code reactive} profile.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = REACTIVE)
+public class ReactiveConfig implements WebFluxConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public ReactiveConfig(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(final ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    /**
+     * The transaction manager is deliberately not a bean, next to the JPA transaction manager it would make
+     * every {@code @Transactional} without a qualifier ambiguous.
+     */
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(final ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    /**
+     * Adds {@code Vary: Accept} to the responses of handlers that produce more than one content type, like
+     * {@link VaryByAcceptInterceptor} does for the servlet stack. The handler is only known once the request
+     * has been mapped, so the header is added just before the response is committed.
+     */
+    @Bean
+    public WebFilter varyByAcceptFilter() {
+        return (exchange, chain) -> {
+            exchange.getResponse().beforeCommit(() -> {
+                final Set<MediaType> producibleTypes = exchange.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+                if (Objects.nonNull(producibleTypes) && producibleTypes.size() > 1) {
+                    exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                }
+                return Mono.empty();
+            });
+            return chain.filter(exchange);
+        };
+    }
+
+    @Override
+    public void addCorsMappings(final CorsRegistry registry) {
+        registry.addMapping("/**");
+    }
+
+    /**
+     * JSON already uses the application's mapper. Smile and CBOR use copies of it, like in {@link WebConfig}.
+     */
+    @Override
+    public void configureHttpMessageCodecs(final ServerCodecConfigurer configurer) {
+        final ObjectMapper smileMapper = objectMapper.copyWith(new SmileFactory());
+        configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper));
+        configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper));
+        final ObjectMapper cborMapper = objectMapper.copyWith(new CBORFactory());
+        configurer.customCodecs().register(new Jackson2CborEncoder(cborMapper));
+        configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper));
+    }
+}
@@ -0,0 +1,66 @@
+package de.tfdw.example.configuration;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Marks a client that just changed something with a short-lived cookie and serves its reads from the primary
+ * while the cookie lives, so the client does not read a replica that has not replayed its change yet.
+ * <p>
+ * The decision is also kept as a request attribute, so that {@link PrimaryRequiredCallableInterceptor} can
+ * apply it to work that asynchronous requests, like the export, run on other threads.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String RECENT_WRITE_COOKIE = "project-recent-write";
+
+    static final String PRIMARY_REQUIRED_ATTRIBUTE = ReadYourWritesFilter.class.getName() + ".primaryRequired";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(final Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            final Cookie cookie = new Cookie(RECENT_WRITE_COOKIE, "1");
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            cookie.setPath(StringUtils.hasLength(request.getContextPath()) ? request.getContextPath() : "/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+
+        if (!hasRecentWriteCookie(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        request.setAttribute(PRIMARY_REQUIRED_ATTRIBUTE, Boolean.TRUE);
+        ReplicaRoutingDataSource.setPrimaryRequired(true);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.setPrimaryRequired(false);
+        }
+    }
+
+    private static boolean hasRecentWriteCookie(final HttpServletRequest request) {
+        return Objects.nonNull(request.getCookies())
+                && Arrays.stream(request.getCookies()).anyMatch(cookie -> RECENT_WRITE_COOKIE.equals(cookie.getName()));
+    }
+}
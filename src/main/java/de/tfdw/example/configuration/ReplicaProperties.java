@@ -0,0 +1,29 @@
+package de.tfdw.example.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas of the primary in {@code spring.datasource}. They are connected with the primary's
+ * credentials and Hikari settings.
+ */
+@ConfigurationProperties("project.datasource.replicas")
+public record ReplicaProperties(
+        boolean enabled,
+
+        @DefaultValue
+        List<String> urls,
+
+        @DefaultValue("5s")
+        Duration healthCheckInterval,
+
+        @DefaultValue("5s")
+        Duration maxLag,
+
+        @DefaultValue("5s")
+        Duration readYourWritesWindow
+) {
+}
@@ -0,0 +1,75 @@
+package de.tfdw.example.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single auto-configured pool with one pool for the primary and one per replica. Read-only
+ * transactions, like the list, search and version lookups of {@link de.tfdw.example.service.ProjectService},
+ * read from the replicas; everything else uses the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "project.datasource.replicas", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfig implements WebMvcConfigurer {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(final DataSourceProperties dataSourceProperties,
+                                                             final ReplicaProperties replicaProperties,
+                                                             final Environment environment,
+                                                             final MeterRegistry meterRegistry) {
+        final HikariDataSource primary = pool("primary", dataSourceProperties.determineUrl(), dataSourceProperties, environment, meterRegistry);
+        final List<DataSource> replicas = new ArrayList<>(replicaProperties.urls().size());
+        for (int i = 0; i < replicaProperties.urls().size(); i++) {
+            final HikariDataSource replica = pool("replica-" + i, replicaProperties.urls().get(i), dataSourceProperties, environment, meterRegistry);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, replicaProperties.healthCheckInterval(), replicaProperties.maxLag(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(final ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(final ReplicaProperties replicaProperties) {
+        return new ReadYourWritesFilter(replicaProperties.readYourWritesWindow());
+    }
+
+    @Override
+    public void configureAsyncSupport(final AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new PrimaryRequiredCallableInterceptor());
+    }
+
+    private static HikariDataSource pool(final String name, final String url, final DataSourceProperties dataSourceProperties,
+                                         final Environment environment, final MeterRegistry meterRegistry) {
+        final HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(name);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+}
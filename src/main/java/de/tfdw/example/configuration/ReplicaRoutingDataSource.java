@@ -0,0 +1,191 @@
+package de.tfdw.example.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything else.
+ * Replicas are used round robin as long as their last health check passed: the replica answered and its
+ * replay lag stayed within the allowed maximum. A replica that fails to hand out a connection is skipped
+ * until it passes a health check again, and the read falls back to the primary.
+ * <p>
+ * The read-only flag of a transaction is only known after the transaction manager asked for a connection,
+ * so this data source has to sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements SmartLifecycle, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    /**
+     * Replay lag in seconds, 0 when everything received has been replayed or when asked on a primary.
+     */
+    private static final String LAG_QUERY = "select coalesce(case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0"
+            + " else extract(epoch from now() - pg_last_xact_replay_timestamp()) end, 0)";
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final Duration healthCheckInterval;
+
+    private final Duration maxLag;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private ScheduledExecutorService healthChecks;
+
+    public ReplicaRoutingDataSource(final DataSource primary, final List<DataSource> replicas, final Duration healthCheckInterval,
+                                    final Duration maxLag, final MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.healthCheckInterval = healthCheckInterval;
+        this.maxLag = maxLag;
+        meterRegistry.gauge("project.datasource.replicas.healthy", this.replicas,
+                all -> all.stream().filter(Replica::isHealthy).count());
+    }
+
+    /**
+     * Sends reads of the current thread to the primary, for requests that must see their own writes.
+     */
+    public static void setPrimaryRequired(final boolean primaryRequired) {
+        if (primaryRequired) {
+            PRIMARY_REQUIRED.set(Boolean.TRUE);
+        } else {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    @Override
+    public void start() {
+        healthChecks = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("replica-health-check").daemon().factory());
+        healthChecks.scheduleWithFixedDelay(this::checkReplicas, 0, healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        healthChecks.shutdownNow();
+        healthChecks = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return Objects.nonNull(healthChecks);
+    }
+
+    @Override
+    public void close() throws Exception {
+        closeIfPossible(primary);
+        for (final Replica replica : replicas) {
+            closeIfPossible(replica.dataSource);
+        }
+    }
+
+    void checkReplicas() {
+        for (final Replica replica : replicas) {
+            replica.check();
+        }
+    }
+
+    private Connection route(final ConnectionSource connectionSource) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && Objects.isNull(PRIMARY_REQUIRED.get())) {
+            final Replica replica = nextHealthyReplica();
+            if (Objects.nonNull(replica)) {
+                try {
+                    return connectionSource.get(replica.dataSource);
+                } catch (final SQLException e) {
+                    replica.markUnhealthy("no connection: " + e.getMessage());
+                }
+            }
+        }
+        return connectionSource.get(primary);
+    }
+
+    private Replica nextHealthyReplica() {
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            final Replica replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+            if (replica.isHealthy()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static void closeIfPossible(final DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get(DataSource dataSource) throws SQLException;
+    }
+
+    private final class Replica {
+
+        private final DataSource dataSource;
+
+        private volatile boolean healthy;
+
+        private Replica(final DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private boolean isHealthy() {
+            return healthy;
+        }
+
+        private void check() {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                final double lagSeconds = resultSet.getDouble(1);
+                if (lagSeconds * 1000 > maxLag.toMillis()) {
+                    markUnhealthy("replay lag of " + lagSeconds + "s");
+                } else if (!healthy) {
+                    healthy = true;
+                    LOGGER.info("Replica {} is healthy, routing reads to it", dataSource);
+                }
+            } catch (final SQLException e) {
+                markUnhealthy("health check failed: " + e.getMessage());
+            }
+        }
+
+        private void markUnhealthy(final String reason) {
+            if (healthy) {
+                LOGGER.warn("Replica {} is unhealthy ({}), routing its reads to the primary", dataSource, reason);
+            }
+            healthy = false;
+        }
+    }
+}
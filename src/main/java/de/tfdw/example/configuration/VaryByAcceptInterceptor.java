@@ -0,0 +1,26 @@
+package de.tfdw.example.configuration;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Collection;
+
+/**
+ * Adds {@code Vary: Accept} to the responses of handlers that produce more than one content type, so caches
+ * keep their representations apart. It is added before the handler runs, so that it is also part of
+ * {@code 304 Not Modified} responses and of bodies written without the message converters.
+ */
+public class VaryByAcceptInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+        if (request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE) instanceof Collection<?> producibleTypes
+                && producibleTypes.size() > 1) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,58 @@
+package de.tfdw.example.configuration;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs every request, including asynchronous ones like the export, on its own virtual thread instead of
+ * Tomcat's bounded worker pool. Since blocked requests no longer tie up a scarce worker, the number of
+ * requests doing database work at once is bounded by a {@link ConcurrencyLimitingDataSource} instead.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "project.threads", name = "virtual", havingValue = "true")
+public class VirtualThreadConfig implements WebMvcConfigurer {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    private final ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Override
+    public void configureAsyncSupport(final AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(virtualThreadExecutor));
+    }
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(final Environment environment) {
+        final int maxConcurrency = environment.getProperty("project.datasource.max-concurrency", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        final Duration acquireTimeout = environment.getProperty("project.datasource.acquire-timeout", Duration.class, Duration.ofSeconds(30));
+
+        // only the data source the application uses is limited, not the pools behind a routing data source
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitingDataSource)) {
+                    return new ConcurrencyLimitingDataSource(dataSource, maxConcurrency, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
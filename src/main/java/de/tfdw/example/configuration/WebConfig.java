@@ -1,16 +1,69 @@
 package de.tfdw.example.configuration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.time.Duration;
+import java.util.List;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+
 @Configuration
+@ConditionalOnWebApplication(type = SERVLET)
 @EnableWebMvc
 public class WebConfig implements WebMvcConfigurer {
 
+    private final Duration asyncRequestTimeout;
+
+    private final ObjectMapper objectMapper;
+
+    public WebConfig(@Value("${project.async-request-timeout:30m}") final Duration asyncRequestTimeout, final ObjectMapper objectMapper) {
+        this.asyncRequestTimeout = asyncRequestTimeout;
+        this.objectMapper = objectMapper;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**");
     }
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(new VaryByAcceptInterceptor());
+    }
+
+    /**
+     * {@link EnableWebMvc} registers JSON, CBOR and Smile converters with their own mappers, which write
+     * timestamps as numbers. Responses use copies of the application's mapper instead, like the export does.
+     */
+    @Override
+    public void extendMessageConverters(final List<HttpMessageConverter<?>> converters) {
+        for (final HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof MappingJackson2HttpMessageConverter jsonConverter) {
+                jsonConverter.setObjectMapper(objectMapper);
+            } else if (converter instanceof MappingJackson2CborHttpMessageConverter cborConverter) {
+                cborConverter.setObjectMapper(objectMapper.copyWith(new CBORFactory()));
+            } else if (converter instanceof MappingJackson2SmileHttpMessageConverter smileConverter) {
+                smileConverter.setObjectMapper(objectMapper.copyWith(new SmileFactory()));
+            }
+        }
+    }
+
+    @Override
+    public void configureAsyncSupport(final AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncRequestTimeout.toMillis());
+    }
 }
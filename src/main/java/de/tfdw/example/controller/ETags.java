@@ -0,0 +1,63 @@
+package de.tfdw.example.controller;
+
+import de.tfdw.example.dto.ProjectListVersion;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+
+/**
+ * Strong entity tags derived from the version column of a project, or from the list version for lists of
+ * projects. The JSON, CBOR and Smile representations differ byte for byte, so each gets its own tag, for
+ * example {@code "3-cbor"}.
+ */
+final class ETags {
+
+    private static final String ANY = "*";
+
+    private static final long UNKNOWN = -1;
+
+    private ETags() {
+    }
+
+    static String of(final Long version, final MediaType contentType) {
+        return "\"" + version + "-" + ProjectMediaTypes.formatOf(contentType) + "\"";
+    }
+
+    static String of(final ProjectListVersion listVersion, final MediaType contentType) {
+        return "\"list-" + listVersion.version() + "-" + ProjectMediaTypes.formatOf(contentType) + "\"";
+    }
+
+    /**
+     * Returns the modification time in epoch milliseconds, or {@code -1} which
+     * {@link org.springframework.web.context.request.WebRequest#checkNotModified(String, long)} ignores.
+     */
+    static long lastModified(final Instant updatedAt) {
+        return Objects.isNull(updatedAt) ? UNKNOWN : updatedAt.toEpochMilli();
+    }
+
+    /**
+     * Returns the version an {@code If-Match} header asks for, or {@code null} if any version is accepted.
+     * If-Match requires strong comparison, so weak or malformed tags can never match. The format of the tag
+     * is ignored, the version is the same in every representation.
+     */
+    static Long versionOf(final String ifMatch) {
+        if (Objects.isNull(ifMatch) || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        final String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new ResponseStatusException(PRECONDITION_FAILED, "If-Match must be a single strong entity tag");
+        }
+        final String value = tag.substring(1, tag.length() - 1);
+        final int formatStart = value.indexOf('-');
+        try {
+            return Long.parseLong(formatStart < 0 ? value : value.substring(0, formatStart));
+        } catch (final NumberFormatException e) {
+            throw new ResponseStatusException(PRECONDITION_FAILED, "If-Match does not match any version of this project");
+        }
+    }
+}
@@ -1,41 +1,200 @@
 package de.tfdw.example.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.tfdw.example.dto.BulkItemResult;
+import de.tfdw.example.dto.CursorPage;
 import de.tfdw.example.dto.Project;
+import de.tfdw.example.dto.ProjectBatch;
+import de.tfdw.example.dto.ProjectChangeBatch;
+import de.tfdw.example.dto.ProjectListVersion;
+import de.tfdw.example.dto.ProjectMember;
+import de.tfdw.example.dto.ProjectStats;
+import de.tfdw.example.dto.ProjectSummary;
+import de.tfdw.example.dto.ProjectVersion;
+import de.tfdw.example.service.ProjectBulkService;
+import de.tfdw.example.service.ProjectChangeFeed;
+import de.tfdw.example.service.ProjectMemberService;
 import de.tfdw.example.service.ProjectService;
+import de.tfdw.example.service.ProjectStatsService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 @RestController
 @RequestMapping("project")
+@ConditionalOnWebApplication(type = SERVLET)
 public class ProjectController {
 
+    private static final String DEFAULT_PAGE_SIZE = "100";
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final int MAX_BATCH_GET_SIZE = 500;
+
+    private static final int EXPORT_FLUSH_INTERVAL = 100;
+
+    private static final String PREFER = "Prefer";
+
+    private static final String RETURN_MINIMAL = "return=minimal";
+
+    private static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private static final String APPLICATION_MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final ProjectService projectService;
 
-    public ProjectController(final ProjectService projectService) {
+    private final ProjectMemberService projectMemberService;
+
+    private final ProjectBulkService projectBulkService;
+
+    private final ProjectChangeFeed projectChangeFeed;
+
+    private final ProjectStatsService projectStatsService;
+
+    private final ProjectResponseCache projectResponseCache;
+
+    private final ContentNegotiationManager contentNegotiationManager;
+
+    private final ObjectMapper objectMapper;
+
+    public ProjectController(final ProjectService projectService,
+                             final ProjectMemberService projectMemberService,
+                             final ProjectBulkService projectBulkService,
+                             final ProjectChangeFeed projectChangeFeed,
+                             final ProjectStatsService projectStatsService,
+                             final ProjectResponseCache projectResponseCache,
+                             final ContentNegotiationManager contentNegotiationManager,
+                             final ObjectMapper objectMapper) {
         this.projectService = projectService;
+        this.projectMemberService = projectMemberService;
+        this.projectBulkService = projectBulkService;
+        this.projectChangeFeed = projectChangeFeed;
+        this.projectStatsService = projectStatsService;
+        this.projectResponseCache = projectResponseCache;
+        this.contentNegotiationManager = contentNegotiationManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping(produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<Project>> getProjects(
+            @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) final int limit,
+            @RequestParam(value = "after", required = false) final UUID after,
+            @RequestParam(value = "name", required = false) final String name,
+            @RequestParam(value = "description", required = false) final String description,
+            final NativeWebRequest webRequest) throws HttpMediaTypeNotAcceptableException {
+        checkPageSize(limit);
+        final MediaType contentType = negotiate(webRequest);
+        if (isListNotModified(webRequest, contentType)) {
+            return null;
+        }
+        return withNextPageLink(projectService.listProjects(after, name, description, limit), contentType);
+    }
+
+    @GetMapping(value = "/_summary", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<ProjectSummary>> getProjectSummaries(
+            @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) final int limit,
+            @RequestParam(value = "after", required = false) final UUID after,
+            @RequestParam(value = "name", required = false) final String name,
+            @RequestParam(value = "description", required = false) final String description,
+            final NativeWebRequest webRequest) throws HttpMediaTypeNotAcceptableException {
+        checkPageSize(limit);
+        final MediaType contentType = negotiate(webRequest);
+        if (isListNotModified(webRequest, contentType)) {
+            return null;
+        }
+        return withNextPageLink(projectService.listProjectSummaries(after, name, description, limit), contentType);
+    }
+
+    @GetMapping(value = "/search", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<ProjectSummary>> searchProjects(
+            @RequestParam(value = "q") final String query,
+            @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) final int limit,
+            @RequestParam(value = "after", required = false) final String after,
+            final NativeWebRequest webRequest) throws HttpMediaTypeNotAcceptableException {
+        checkPageSize(limit);
+        return withNextPageLink(projectService.searchProjects(query, after, limit), negotiate(webRequest));
+    }
+
+    /**
+     * Project and member totals, counted at most once per {@code project.stats.time-to-live}.
+     */
+    @GetMapping(value = "/_stats", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ProjectStats getProjectStats() {
+        return projectStatsService.getStats();
+    }
+
+    /**
+     * Long poll over the project outbox. Consumers pass the {@code nextSince} of the previous response as
+     * {@code since}, or leave it out to start at the beginning; a response without changes means the poll
+     * timed out.
+     */
+    @GetMapping(value = "/changes", produces = APPLICATION_JSON_VALUE)
+    public DeferredResult<ProjectChangeBatch> getProjectChanges(
+            @RequestParam(value = "since", required = false) final String since,
+            @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) final int limit) {
+        checkPageSize(limit);
+        return projectChangeFeed.pollChanges(since, limit);
     }
 
-    @GetMapping(produces = APPLICATION_JSON_VALUE)
-    public List<Project> getProjects() {
-        return projectService.listProjects();
+    @GetMapping(value = "/_export", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProjects() {
+        final StreamingResponseBody body = outputStream -> {
+            try {
+                final int[] written = {0};
+                projectService.exportProjects(project -> {
+                    writeLine(outputStream, project);
+                    if (++written[0] % EXPORT_FLUSH_INTERVAL == 0) {
+                        flush(outputStream);
+                    }
+                });
+            } catch (final UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
-    @PostMapping(produces = APPLICATION_JSON_VALUE)
+    @PostMapping(produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     @ResponseStatus(HttpStatus.CREATED)
     public Project createProject(@Validated @RequestBody final Project project) {
         if (Objects.nonNull(project.projectId())) {
@@ -44,21 +203,201 @@ public class ProjectController {
         return projectService.createProject(project);
     }
 
-    @PostMapping(value = "/{projectID}", produces = APPLICATION_JSON_VALUE)
-    public Project updateProject(@PathVariable("projectID") final UUID projectID, @Validated @RequestBody final Project project) {
+    @PostMapping(value = "/_bulk", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    public List<BulkItemResult> upsertProjects(@RequestBody final List<Project> projects) {
+        return projectBulkService.upsertProjects(projects.iterator());
+    }
+
+    @PostMapping(value = "/_bulk", consumes = APPLICATION_NDJSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    public List<BulkItemResult> upsertProjectStream(final InputStream body) throws IOException {
+        try (MappingIterator<Project> projects = objectMapper.readerFor(Project.class).readValues(body)) {
+            return projectBulkService.upsertProjects(projects);
+        }
+    }
+
+    @PostMapping(value = "/_bulk/delete", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    public List<BulkItemResult> deleteProjects(@RequestBody final List<UUID> projectIDs) {
+        return projectBulkService.deleteProjects(projectIDs);
+    }
+
+    /**
+     * Returns the projects with the given ids in one response, for clients that would otherwise request
+     * them one by one. Unknown ids are reported as missing rather than failing the whole request.
+     */
+    @PostMapping(value = "/_mget", consumes = APPLICATION_JSON_VALUE,
+            produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ProjectBatch getProjectsById(@RequestBody final List<UUID> projectIDs) {
+        if (projectIDs.isEmpty() || projectIDs.size() > MAX_BATCH_GET_SIZE) {
+            throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "Between 1 and " + MAX_BATCH_GET_SIZE + " project ids must be given");
+        }
+        if (projectIDs.stream().anyMatch(Objects::isNull)) {
+            throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "Project ids must not be null");
+        }
+        return projectService.getProjects(projectIDs);
+    }
+
+    @PostMapping(value = "/{projectID}", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<Project> updateProject(@PathVariable("projectID") final UUID projectID,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch,
+                                                 @Validated @RequestBody final Project project,
+                                                 final NativeWebRequest webRequest) throws HttpMediaTypeNotAcceptableException {
         if (!projectID.equals(project.projectId())) {
             throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "ProjectIDs do not match");
         }
-        return projectService.updateProject(project);
+        final Project updatedProject = projectService.updateProject(project, ETags.versionOf(ifMatch));
+        return withValidators(updatedProject, negotiate(webRequest));
     }
 
-    @GetMapping(value = "/{projectID}", produces = APPLICATION_JSON_VALUE)
-    public Project getProject(@PathVariable("projectID") final UUID projectID) {
-        return projectService.getProject(projectID);
+    @PatchMapping(value = "/{projectID}", consumes = {APPLICATION_MERGE_PATCH_JSON_VALUE, APPLICATION_JSON_VALUE},
+            produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<Project> patchProject(@PathVariable("projectID") final UUID projectID,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch,
+                                                @RequestBody final Map<String, Object> patch,
+                                                final NativeWebRequest webRequest) throws HttpMediaTypeNotAcceptableException {
+        final Project patchedProject = projectService.patchProject(projectID, patch, ETags.versionOf(ifMatch));
+        return withValidators(patchedProject, negotiate(webRequest));
     }
 
+    /**
+     * Conditional requests are answered from the version and modification time alone, so an unchanged
+     * project is neither loaded nor serialized. With the response cache enabled, the cached bytes are written
+     * straight to the response, bypassing the message converters.
+     */
+    @GetMapping(value = "/{projectID}", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<Project> getProject(@PathVariable("projectID") final UUID projectID, final NativeWebRequest webRequest)
+            throws HttpMediaTypeNotAcceptableException, IOException {
+        final MediaType contentType = negotiate(webRequest);
+        if (Objects.nonNull(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH)) || Objects.nonNull(webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE))) {
+            final ProjectVersion version = projectService.getProjectVersion(projectID);
+            if (webRequest.checkNotModified(ETags.of(version.version(), contentType), ETags.lastModified(version.updatedAt()))) {
+                return null;
+            }
+        }
+        final Project project = projectService.getProject(projectID);
+        if (projectResponseCache.isEnabled()) {
+            writeCachedBody(webRequest, project, contentType);
+            return null;
+        }
+        return withValidators(project, contentType);
+    }
+
+    /**
+     * Returns the deleted project by default. With {@code Prefer: return=minimal} the project is deleted
+     * without being loaded and the response has no body.
+     */
     @DeleteMapping(value = "/{projectID}", produces = APPLICATION_JSON_VALUE)
-    public Project deleteProject(@PathVariable("projectID") final UUID projectID) {
-        return projectService.deleteProject(projectID);
+    public ResponseEntity<Project> deleteProject(@PathVariable("projectID") final UUID projectID,
+                                                 @RequestHeader(value = PREFER, required = false) final String prefer) {
+        if (RETURN_MINIMAL.equalsIgnoreCase(Objects.requireNonNullElse(prefer, "").trim())) {
+            projectService.deleteProjectById(projectID);
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(projectService.deleteProject(projectID));
+    }
+
+    @GetMapping(value = "/{projectID}/members", produces = APPLICATION_JSON_VALUE)
+    public List<ProjectMember> getProjectMembers(@PathVariable("projectID") final UUID projectID) {
+        return projectMemberService.getProjectMembers(projectID);
+    }
+
+    @PostMapping(value = "/{projectID}/members", produces = APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public ProjectMember addProjectMember(@PathVariable("projectID") final UUID projectID,
+                                          @Validated @RequestBody final ProjectMember projectMember) {
+        return projectMemberService.addProjectMember(projectID, projectMember);
+    }
+
+    /**
+     * Takes a JSON merge patch: only the fields present in the body are changed, a field set to null is
+     * cleared.
+     */
+    @PatchMapping(value = "/{projectID}/members/{projectMemberID}", consumes = {APPLICATION_MERGE_PATCH_JSON_VALUE, APPLICATION_JSON_VALUE},
+            produces = APPLICATION_JSON_VALUE)
+    public ProjectMember updateProjectMember(@PathVariable("projectID") final UUID projectID,
+                                             @PathVariable("projectMemberID") final UUID projectMemberID,
+                                             @RequestBody final Map<String, Object> patch) {
+        return projectMemberService.updateProjectMember(projectID, projectMemberID, patch);
+    }
+
+    @DeleteMapping(value = "/{projectID}/members/{projectMemberID}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void removeProjectMember(@PathVariable("projectID") final UUID projectID,
+                                    @PathVariable("projectMemberID") final UUID projectMemberID) {
+        projectMemberService.removeProjectMember(projectID, projectMemberID);
+    }
+
+    /**
+     * Every change to projects or their members bumps the list version, so one version serves all pages and
+     * filters. Reading it is a single-row lookup, independent of the size of the table.
+     */
+    private boolean isListNotModified(final NativeWebRequest webRequest, final MediaType contentType) {
+        final ProjectListVersion listVersion = projectService.getProjectListVersion();
+        return webRequest.checkNotModified(ETags.of(listVersion, contentType), ETags.lastModified(listVersion.lastModified()));
+    }
+
+    /**
+     * Negotiates the content type before the response is written, so that the validators can depend on it.
+     * The type is then set on the response, which keeps the message converters from choosing another one.
+     */
+    private MediaType negotiate(final NativeWebRequest webRequest) throws HttpMediaTypeNotAcceptableException {
+        return ProjectMediaTypes.negotiate(contentNegotiationManager.resolveMediaTypes(webRequest));
+    }
+
+    private static ResponseEntity<Project> withValidators(final Project project, final MediaType contentType) {
+        return validators(project, contentType).body(project);
+    }
+
+    private void writeCachedBody(final NativeWebRequest webRequest, final Project project, final MediaType contentType) throws IOException {
+        final byte[] body = projectResponseCache.serialize(project, contentType);
+        final ServletServerHttpResponse response = new ServletServerHttpResponse(
+                Objects.requireNonNull(webRequest.getNativeResponse(HttpServletResponse.class)));
+        response.getHeaders().putAll(validators(project, contentType).contentLength(body.length).build().getHeaders());
+        response.getBody().write(body);
+        response.flush();
+    }
+
+    private static ResponseEntity.BodyBuilder validators(final Project project, final MediaType contentType) {
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(contentType)
+                .eTag(ETags.of(project.version(), contentType));
+        if (Objects.nonNull(project.updatedAt())) {
+            response.lastModified(project.updatedAt());
+        }
+        return response;
+    }
+
+    private static void checkPageSize(final int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private static <T> ResponseEntity<List<T>> withNextPageLink(final CursorPage<T> page, final MediaType contentType) {
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(contentType);
+        if (Objects.nonNull(page.nextCursor())) {
+            final String nextPage = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.nextCursor())
+                    .build(true)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + nextPage + ">; rel=\"next\"");
+        }
+        return response.body(page.items());
+    }
+
+    private void writeLine(final OutputStream outputStream, final Project project) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(project));
+            outputStream.write('\n');
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void flush(final OutputStream outputStream) {
+        try {
+            outputStream.flush();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
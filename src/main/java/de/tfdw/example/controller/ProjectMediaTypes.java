@@ -0,0 +1,61 @@
+package de.tfdw.example.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The content types the project endpoints negotiate between, in the order of their {@code produces}
+ * conditions. Negotiating them up front lets validators and cached bodies depend on the representation.
+ */
+final class ProjectMediaTypes {
+
+    static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    static final List<MediaType> PRODUCIBLE = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    private static final Map<MediaType, String> FORMATS = Map.of(
+            MediaType.APPLICATION_JSON, "json",
+            MediaType.APPLICATION_CBOR, "cbor",
+            APPLICATION_SMILE, "smile");
+
+    private ProjectMediaTypes() {
+    }
+
+    /**
+     * Returns the producible type the client prefers, choosing like the message converters do: by quality,
+     * then by specificity, then in the order of {@link #PRODUCIBLE}. Types with a quality of zero are not
+     * acceptable. The endpoints only match requests that accept one of the types, so JSON is returned for
+     * requests without an {@code Accept} header.
+     */
+    static MediaType negotiate(final List<MediaType> acceptedTypes) {
+        final List<MediaType> compatibleTypes = new ArrayList<>();
+        for (final MediaType acceptedType : acceptedTypes) {
+            if (acceptedType.getQualityValue() == 0) {
+                continue;
+            }
+            for (final MediaType producibleType : PRODUCIBLE) {
+                if (acceptedType.isCompatibleWith(producibleType)) {
+                    compatibleTypes.add(producibleType.copyQualityValue(acceptedType));
+                }
+            }
+        }
+        if (compatibleTypes.isEmpty()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(compatibleTypes);
+        return compatibleTypes.get(0).removeQualityValue();
+    }
+
+    /**
+     * Returns the short name of a producible type, as used in entity tags.
+     */
+    static String formatOf(final MediaType contentType) {
+        return FORMATS.get(contentType);
+    }
+}
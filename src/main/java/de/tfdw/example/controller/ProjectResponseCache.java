@@ -0,0 +1,96 @@
+package de.tfdw.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import de.tfdw.example.dto.Project;
+import de.tfdw.example.dto.ProjectChange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import static de.tfdw.example.configuration.CacheConfig.PROJECT_RESPONSES;
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+
+/**
+ * Serialized {@code GET /project/{id}} response bodies per project and content type, enabled with
+ * {@code project.response-cache.enabled}. A hit is written as the cached bytes, without mapping or
+ * serializing the project again.
+ * <p>
+ * An entry is only served for the very {@link Project} instance it was serialized from, so it is exactly as
+ * current as the project cache in front of {@code ProjectService#getProject}. Project changes evict the
+ * entries of the project so stale bodies do not take up memory until they expire.
+ */
+@Component
+@ConditionalOnWebApplication(type = SERVLET)
+public class ProjectResponseCache {
+
+    private final boolean enabled;
+
+    private final Cache cache;
+
+    private final Map<MediaType, ObjectWriter> writers = new LinkedHashMap<>();
+
+    public ProjectResponseCache(@Value("${project.response-cache.enabled:false}") final boolean enabled,
+                                final CacheManager cacheManager,
+                                final ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.cache = Objects.requireNonNull(cacheManager.getCache(PROJECT_RESPONSES), "Cache " + PROJECT_RESPONSES + " is not configured");
+        // same order and mappers as the message converters, see WebConfig
+        writers.put(MediaType.APPLICATION_JSON, objectMapper.writerFor(Project.class));
+        writers.put(MediaType.APPLICATION_CBOR, objectMapper.copyWith(new CBORFactory()).writerFor(Project.class));
+        writers.put(ProjectMediaTypes.APPLICATION_SMILE, objectMapper.copyWith(new SmileFactory()).writerFor(Project.class));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the body of the project in the given content type, serializing it only if there is no entry
+     * for this instance of the project yet.
+     */
+    public byte[] serialize(final Project project, final MediaType contentType) {
+        final ResponseKey key = new ResponseKey(project.projectId(), contentType);
+        final SerializedProject cached = cache.get(key, SerializedProject.class);
+        if (Objects.nonNull(cached) && cached.project() == project) {
+            return cached.body();
+        }
+
+        try {
+            final byte[] body = writers.get(contentType).writeValueAsBytes(project);
+            cache.put(key, new SerializedProject(project, body));
+            return body;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @EventListener
+    public void onProjectChange(final ProjectChange change) {
+        if (!enabled) {
+            return;
+        }
+        for (final MediaType contentType : writers.keySet()) {
+            cache.evict(new ResponseKey(change.projectId(), contentType));
+        }
+    }
+
+    private record ResponseKey(UUID projectId, MediaType contentType) {
+    }
+
+    private record SerializedProject(Project project, byte[] body) {
+    }
+}
@@ -0,0 +1,183 @@
+package de.tfdw.example.controller;
+
+import de.tfdw.example.dto.Project;
+import de.tfdw.example.service.ReactiveProjectService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+/**
+ * The list, export and single project endpoints of {@link ProjectController} for the {@code reactive}
+ * profile, with the same paths, parameters, validators and status codes.
+ */
+@RestController
+@RequestMapping("project")
+@ConditionalOnWebApplication(type = REACTIVE)
+public class ReactiveProjectController {
+
+    private static final String DEFAULT_PAGE_SIZE = "100";
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String PREFER = "Prefer";
+
+    private static final String RETURN_MINIMAL = "return=minimal";
+
+    private static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private final ReactiveProjectService reactiveProjectService;
+
+    public ReactiveProjectController(final ReactiveProjectService reactiveProjectService) {
+        this.reactiveProjectService = reactiveProjectService;
+    }
+
+    /**
+     * The next page link needs the end of the page, so the page is collected before the response starts.
+     * It holds at most {@value #MAX_PAGE_SIZE} projects.
+     */
+    @GetMapping(produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public Mono<ResponseEntity<List<Project>>> getProjects(
+            @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) final int limit,
+            @RequestParam(value = "after", required = false) final UUID after,
+            @RequestParam(value = "name", required = false) final String name,
+            @RequestParam(value = "description", required = false) final String description,
+            final ServerWebExchange exchange) {
+        checkPageSize(limit);
+        final MediaType contentType = negotiate(exchange);
+        return reactiveProjectService.getProjectListVersion()
+                .filter(listVersion -> !isNotModified(exchange, ETags.of(listVersion, contentType), listVersion.lastModified()))
+                .flatMap(listVersion -> reactiveProjectService.listProjects(after, name, description, limit + 1).collectList())
+                .map(projects -> withNextPageLink(exchange, projects, limit, contentType));
+    }
+
+    /**
+     * Streams all projects as they are read. The response is written as fast as the client reads it and the
+     * database is only asked for more rows when earlier ones have been written.
+     */
+    @GetMapping(value = "/_export", produces = APPLICATION_NDJSON_VALUE)
+    public Flux<Project> exportProjects() {
+        return reactiveProjectService.exportProjects();
+    }
+
+    @PostMapping(produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Project> createProject(@Validated @RequestBody final Project project) {
+        if (Objects.nonNull(project.projectId())) {
+            throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "ProjectID shall not be set when creating a project");
+        }
+        return reactiveProjectService.createProject(project);
+    }
+
+    @PostMapping(value = "/{projectID}", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public Mono<ResponseEntity<Project>> updateProject(@PathVariable("projectID") final UUID projectID,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch,
+                                                       @Validated @RequestBody final Project project,
+                                                       final ServerWebExchange exchange) {
+        if (!projectID.equals(project.projectId())) {
+            throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "ProjectIDs do not match");
+        }
+        final MediaType contentType = negotiate(exchange);
+        return reactiveProjectService.updateProject(project, ETags.versionOf(ifMatch))
+                .map(updatedProject -> withValidators(updatedProject, contentType));
+    }
+
+    @GetMapping(value = "/{projectID}", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public Mono<ResponseEntity<Project>> getProject(@PathVariable("projectID") final UUID projectID, final ServerWebExchange exchange) {
+        final HttpHeaders headers = exchange.getRequest().getHeaders();
+        final MediaType contentType = negotiate(exchange);
+        if (!headers.containsKey(HttpHeaders.IF_NONE_MATCH) && !headers.containsKey(HttpHeaders.IF_MODIFIED_SINCE)) {
+            return reactiveProjectService.getProject(projectID).map(project -> withValidators(project, contentType));
+        }
+        return reactiveProjectService.getProjectVersion(projectID)
+                .filter(version -> !isNotModified(exchange, ETags.of(version.version(), contentType), version.updatedAt()))
+                .flatMap(version -> reactiveProjectService.getProject(projectID))
+                .map(project -> withValidators(project, contentType));
+    }
+
+    @DeleteMapping(value = "/{projectID}", produces = APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Project>> deleteProject(@PathVariable("projectID") final UUID projectID,
+                                                       @RequestHeader(value = PREFER, required = false) final String prefer) {
+        if (RETURN_MINIMAL.equalsIgnoreCase(Objects.requireNonNullElse(prefer, "").trim())) {
+            return reactiveProjectService.deleteProjectById(projectID)
+                    .then(Mono.just(ResponseEntity.noContent().<Project>build()));
+        }
+        return reactiveProjectService.deleteProject(projectID).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Sets the response up as 304 and returns {@code true} if the client's copy is current, in which case
+     * the handler completes without a body.
+     */
+    private static boolean isNotModified(final ServerWebExchange exchange, final String eTag, final Instant lastModified) {
+        return Objects.isNull(lastModified) ? exchange.checkNotModified(eTag) : exchange.checkNotModified(eTag, lastModified);
+    }
+
+    /**
+     * Negotiates the content type before the response is written, so that the validators can depend on it.
+     * The type is then set on the response, which keeps the encoders from choosing another one.
+     */
+    private static MediaType negotiate(final ServerWebExchange exchange) {
+        return ProjectMediaTypes.negotiate(exchange.getRequest().getHeaders().getAccept());
+    }
+
+    private static ResponseEntity<Project> withValidators(final Project project, final MediaType contentType) {
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(contentType)
+                .eTag(ETags.of(project.version(), contentType));
+        if (Objects.nonNull(project.updatedAt())) {
+            response.lastModified(project.updatedAt());
+        }
+        return response.body(project);
+    }
+
+    private static void checkPageSize(final int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Expects one project more than the page size, its presence means there is a next page.
+     */
+    private static ResponseEntity<List<Project>> withNextPageLink(final ServerWebExchange exchange, final List<Project> projects,
+                                                                  final int limit, final MediaType contentType) {
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(contentType);
+        if (projects.size() <= limit) {
+            return response.body(projects);
+        }
+        final List<Project> page = projects.subList(0, limit);
+        final String nextPage = UriComponentsBuilder.fromUri(exchange.getRequest().getURI())
+                .replaceQueryParam("after", page.get(limit - 1).projectId())
+                .build(true)
+                .toUriString();
+        return response.header(HttpHeaders.LINK, "<" + nextPage + ">; rel=\"next\"").body(page);
+    }
+}
@@ -0,0 +1,14 @@
+package de.tfdw.example.dto;
+
+import java.util.UUID;
+
+public record BulkItemResult(
+        int index,
+
+        UUID projectId,
+
+        int status,
+
+        String message
+) {
+}
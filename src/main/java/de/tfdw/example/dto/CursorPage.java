@@ -0,0 +1,10 @@
+package de.tfdw.example.dto;
+
+import java.util.List;
+
+public record CursorPage<T>(
+        List<T> items,
+
+        String nextCursor
+) {
+}
@@ -3,7 +3,9 @@ package de.tfdw.example.dto;
 
 import org.springframework.validation.annotation.Validated;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Size;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,6 +19,10 @@ public record Project(
         @Size(min = 10, max = 256)
         String description,
 
-        List<ProjectMember> projectMembers
+        List<@Valid ProjectMember> projectMembers,
+
+        Long version,
+
+        Instant updatedAt
 ) {
 }
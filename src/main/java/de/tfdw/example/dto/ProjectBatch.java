@@ -0,0 +1,15 @@
+package de.tfdw.example.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Projects requested by id, in the order they were requested. Ids without a project are listed in
+ * {@code missingProjectIds} instead.
+ */
+public record ProjectBatch(
+        List<Project> projects,
+
+        List<UUID> missingProjectIds
+) {
+}
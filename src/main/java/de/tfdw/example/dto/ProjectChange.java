@@ -0,0 +1,29 @@
+package de.tfdw.example.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A committed mutation of a project, published as an application event. {@code version} is the version
+ * the project had after the change, if it is known.
+ */
+public record ProjectChange(UUID projectId, Type type, Long version, Instant occurredAt) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static ProjectChange created(final UUID projectId, final Long version) {
+        return new ProjectChange(projectId, Type.CREATED, version, Instant.now());
+    }
+
+    public static ProjectChange updated(final UUID projectId, final Long version) {
+        return new ProjectChange(projectId, Type.UPDATED, version, Instant.now());
+    }
+
+    public static ProjectChange deleted(final UUID projectId, final Long version) {
+        return new ProjectChange(projectId, Type.DELETED, version, Instant.now());
+    }
+}
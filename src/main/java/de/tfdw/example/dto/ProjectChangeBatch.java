@@ -0,0 +1,14 @@
+package de.tfdw.example.dto;
+
+import java.util.List;
+
+/**
+ * Changes after a cursor. {@code nextSince} is the cursor to continue from, it equals the requested one
+ * when there were no changes.
+ */
+public record ProjectChangeBatch(
+        List<ProjectChangeEntry> changes,
+
+        String nextSince
+) {
+}
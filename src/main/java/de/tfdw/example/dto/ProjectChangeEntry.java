@@ -0,0 +1,19 @@
+package de.tfdw.example.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record ProjectChangeEntry(
+        long transactionId,
+
+        long sequence,
+
+        UUID projectId,
+
+        ProjectChange.Type type,
+
+        Long version,
+
+        Instant occurredAt
+) {
+}
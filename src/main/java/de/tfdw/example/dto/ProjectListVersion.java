@@ -0,0 +1,10 @@
+package de.tfdw.example.dto;
+
+import java.time.Instant;
+
+/**
+ * Counter bumped in the transaction of every change to projects or their members, see
+ * {@code V8__spread_project_list_version.sql}. {@code lastModified} is the database time of the latest bump.
+ */
+public record ProjectListVersion(long version, Instant lastModified) {
+}
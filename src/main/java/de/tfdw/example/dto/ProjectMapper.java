@@ -1,6 +1,7 @@
 package de.tfdw.example.dto;
 
 import de.tfdw.example.model.ProjectEntity;
+import de.tfdw.example.model.ProjectMemberEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
@@ -14,7 +15,41 @@ public class ProjectMapper {
                 project.id,
                 project.name,
                 project.description,
-                project.projectMembers
+                project.projectMembers.stream()
+                        .map(this::mapFromProjectMemberEntity)
+                        .toList(),
+                project.version,
+                project.updatedAt
+        );
+    }
+
+    public ProjectMember mapFromProjectMemberEntity(final ProjectMemberEntity projectMember) {
+        Assert.notNull(projectMember, "Project Member Entity is required for mapping");
+
+        return new ProjectMember(
+                projectMember.getId(),
+                projectMember.getFirstName(),
+                projectMember.getLastName(),
+                projectMember.getEmail(),
+                projectMember.getPronouns(),
+                projectMember.getDescription(),
+                projectMember.getImageReference()
+        );
+    }
+
+    /**
+     * Creates a new member, an id of the given member is ignored.
+     */
+    public ProjectMemberEntity mapToProjectMemberEntity(final ProjectMember projectMember) {
+        Assert.notNull(projectMember, "Project Member is required for mapping");
+
+        return new ProjectMemberEntity(
+                projectMember.firstName(),
+                projectMember.lastName(),
+                projectMember.email(),
+                projectMember.pronouns(),
+                projectMember.description(),
+                projectMember.imageReference()
         );
     }
 }
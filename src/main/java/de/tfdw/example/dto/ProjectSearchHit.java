@@ -0,0 +1,6 @@
+package de.tfdw.example.dto;
+
+import java.util.UUID;
+
+public record ProjectSearchHit(UUID projectId, String name, String description, float rank) {
+}
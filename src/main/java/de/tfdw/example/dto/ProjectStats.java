@@ -0,0 +1,25 @@
+package de.tfdw.example.dto;
+
+/**
+ * Totals over all projects. {@code membershipCount} counts the members of every project, so a member of two
+ * projects is counted twice there and once in {@code memberCount}.
+ */
+public record ProjectStats(
+        long projectCount,
+
+        long memberCount,
+
+        long membershipCount,
+
+        double averageMembersPerProject
+) {
+
+    public static ProjectStats of(final long projectCount, final long memberCount, final long membershipCount) {
+        return new ProjectStats(
+                projectCount,
+                memberCount,
+                membershipCount,
+                projectCount > 0 ? (double) membershipCount / projectCount : 0
+        );
+    }
+}
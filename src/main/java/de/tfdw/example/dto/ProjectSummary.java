@@ -0,0 +1,12 @@
+package de.tfdw.example.dto;
+
+import java.util.UUID;
+
+public record ProjectSummary(
+        UUID projectId,
+
+        String name,
+
+        String description
+) {
+}
@@ -0,0 +1,6 @@
+package de.tfdw.example.dto;
+
+import java.time.Instant;
+
+public record ProjectVersion(Long version, Instant updatedAt) {
+}
@@ -1,20 +1,36 @@
 package de.tfdw.example.model;
 
-import de.tfdw.example.dto.ProjectMember;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
-import java.util.List;
+import jakarta.persistence.Version;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
+/**
+ * Updates only write the columns that actually changed, which keeps the large and rarely changing
+ * description out of most update statements.
+ */
 @Entity
+@DynamicUpdate
 @Table(name = "project")
 public class ProjectEntity {
 
@@ -22,29 +38,44 @@ public class ProjectEntity {
     @GeneratedValue(strategy= GenerationType.AUTO)
     public UUID id;
 
-    @Column(name = "name")
+    @Column(name = "name", length = 256)
     public String name;
 
-    @Column(name = "description")
+    @Column(name = "description", length = 256)
     public String description;
 
-    @ManyToMany(targetEntity = ProjectMemberEntity.class, fetch = FetchType.EAGER)
-    public List<ProjectMember> projectMembers;
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    public Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", columnDefinition = "timestamptz")
+    public Instant updatedAt;
+
+    @ManyToMany(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.DETACH})
+    @JoinTable(
+            name = "project_project_members",
+            joinColumns = @JoinColumn(name = "project_id"),
+            inverseJoinColumns = @JoinColumn(name = "project_member_id")
+    )
+    @BatchSize(size = 100)
+    public Set<ProjectMemberEntity> projectMembers = new LinkedHashSet<>();
 
     public ProjectEntity() {
     }
 
-    public ProjectEntity(final String name, final String description, final List<ProjectMember> projectMembers) {
+    public ProjectEntity(final String name, final String description, final Collection<ProjectMemberEntity> projectMembers) {
         this.name = name;
         this.description = description;
-        this.projectMembers = projectMembers;
+        this.projectMembers.addAll(projectMembers);
     }
 
-    public ProjectEntity(final UUID id, final String name, final String description, final List<ProjectMember> projectMembers) {
+    public ProjectEntity(final UUID id, final String name, final String description, final Collection<ProjectMemberEntity> projectMembers) {
         this.id = id;
         this.name = name;
         this.description = description;
-        this.projectMembers = projectMembers;
+        this.projectMembers.addAll(projectMembers);
     }
 
     public UUID getId() {
@@ -71,12 +102,34 @@ public class ProjectEntity {
         this.description = description;
     }
 
-    public List<ProjectMember> getProjectMembers() {
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(final Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(final Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Set<ProjectMemberEntity> getProjectMembers() {
         return projectMembers;
     }
 
-    public void setProjectMembers(final List<ProjectMember> projectMembers) {
-        this.projectMembers = projectMembers;
+    /**
+     * Replaces the members in place, so Hibernate only inserts and deletes the join rows of members that
+     * were actually added or removed instead of rewriting the whole collection.
+     */
+    public void setProjectMembers(final Collection<ProjectMemberEntity> projectMembers) {
+        final Set<ProjectMemberEntity> members = new HashSet<>(projectMembers);
+        this.projectMembers.retainAll(members);
+        this.projectMembers.addAll(projectMembers);
     }
 
     @Override
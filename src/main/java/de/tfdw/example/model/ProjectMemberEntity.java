@@ -1,19 +1,139 @@
 package de.tfdw.example.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.hibernate.annotations.DynamicUpdate;
+import org.springframework.data.domain.Persistable;
+
+import java.util.Objects;
 import java.util.UUID;
 
+/**
+ * The id is assigned on construction instead of on insert, so new members can be held in the hash based
+ * member set of a project before they are persisted. {@link #isNew()} keeps Spring Data from issuing a
+ * select before inserting them.
+ */
 @Entity
+@DynamicUpdate
 @Table(name = "project_member")
-public class ProjectMemberEntity {
+public class ProjectMemberEntity implements Persistable<UUID> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID id;
 
+    @Column(name = "first_name", length = 255)
+    private String firstName;
+
+    @Column(name = "last_name", length = 255)
+    private String lastName;
+
+    @Column(name = "email", length = 255)
+    private String email;
+
+    @Column(name = "pronouns", length = 16)
+    private String pronouns;
+
+    @Column(name = "description", length = 255)
+    private String description;
+
+    @Column(name = "image_reference", length = 255)
+    private String imageReference;
+
+    @Transient
+    private boolean isNew;
+
+    public ProjectMemberEntity() {
+    }
+
+    public ProjectMemberEntity(final String firstName, final String lastName, final String email,
+                               final String pronouns, final String description, final String imageReference) {
+        this.id = UUID.randomUUID();
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.pronouns = pronouns;
+        this.description = description;
+        this.imageReference = imageReference;
+        this.isNew = true;
+    }
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    void markPersisted() {
+        this.isNew = false;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(final String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(final String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(final String email) {
+        this.email = email;
+    }
+
+    public String getPronouns() {
+        return pronouns;
+    }
+
+    public void setPronouns(final String pronouns) {
+        this.pronouns = pronouns;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(final String description) {
+        this.description = description;
+    }
+
+    public String getImageReference() {
+        return imageReference;
+    }
+
+    public void setImageReference(final String imageReference) {
+        this.imageReference = imageReference;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final ProjectMemberEntity that = (ProjectMemberEntity) o;
+        return Objects.equals(id, that.id);
+    }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
 }
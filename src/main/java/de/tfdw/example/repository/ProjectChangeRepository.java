@@ -0,0 +1,41 @@
+package de.tfdw.example.repository;
+
+import de.tfdw.example.dto.ProjectChange;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Objects;
+
+@Repository
+public class ProjectChangeRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProjectChangeRepository(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Appends all changes with one batched insert.
+     */
+    public void appendAll(final List<ProjectChange> changes) {
+        jdbcTemplate.batchUpdate(
+                "insert into project_change (project_id, change_type, version, occurred_at) values (?, ?, ?, ?)",
+                changes,
+                changes.size(),
+                (statement, change) -> {
+                    statement.setObject(1, change.projectId());
+                    statement.setString(2, change.type().name());
+                    if (Objects.isNull(change.version())) {
+                        statement.setNull(3, Types.BIGINT);
+                    } else {
+                        statement.setLong(3, change.version());
+                    }
+                    statement.setTimestamp(4, Timestamp.from(change.occurredAt()));
+                }
+        );
+    }
+}
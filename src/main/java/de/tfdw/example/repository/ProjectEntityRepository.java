@@ -1,11 +1,23 @@
 package de.tfdw.example.repository;
 
+import de.tfdw.example.dto.ProjectVersion;
 import de.tfdw.example.model.ProjectEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface ProjectEntityRepository extends CrudRepository<ProjectEntity, UUID> {
+public interface ProjectEntityRepository extends CrudRepository<ProjectEntity, UUID>, ProjectEntityRepositoryCustom {
+
+    @Override
+    @EntityGraph(attributePaths = "projectMembers")
+    Optional<ProjectEntity> findById(UUID id);
+
+    @Query("select new de.tfdw.example.dto.ProjectVersion(p.version, p.updatedAt) from ProjectEntity p where p.id = :id")
+    Optional<ProjectVersion> findVersionById(@Param("id") UUID id);
 }
@@ -0,0 +1,43 @@
+package de.tfdw.example.repository;
+
+import de.tfdw.example.dto.ProjectChange;
+import de.tfdw.example.dto.ProjectListVersion;
+import de.tfdw.example.dto.ProjectSearchHit;
+import de.tfdw.example.dto.ProjectStats;
+import de.tfdw.example.dto.ProjectSummary;
+import de.tfdw.example.dto.ProjectVersion;
+import de.tfdw.example.model.ProjectEntity;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface ProjectEntityRepositoryCustom {
+
+    List<ProjectEntity> findPage(UUID after, String name, String description, int limit);
+
+    List<ProjectSummary> findSummaryPage(UUID after, String name, String description, int limit);
+
+    List<ProjectEntity> findAllWithMembersById(Collection<UUID> ids);
+
+    void forEachProject(int fetchSize, Consumer<ProjectEntity> consumer);
+
+    Optional<ProjectVersion> updateProject(UUID id, Long expectedVersion, String name, String description);
+
+    Optional<ProjectVersion> patchProject(UUID id, Long expectedVersion, Map<String, String> columns);
+
+    Optional<ProjectVersion> touchProject(UUID id);
+
+    List<ProjectChange> touchProjectsOfMember(UUID projectMemberId);
+
+    List<UUID> deleteProjects(Collection<UUID> ids);
+
+    ProjectListVersion findListVersion();
+
+    ProjectStats findStats();
+
+    List<ProjectSearchHit> search(String query, Float afterRank, UUID afterId, int limit);
+}
@@ -0,0 +1,345 @@
+package de.tfdw.example.repository;
+
+import de.tfdw.example.dto.ProjectChange;
+import de.tfdw.example.dto.ProjectListVersion;
+import de.tfdw.example.dto.ProjectSearchHit;
+import de.tfdw.example.dto.ProjectStats;
+import de.tfdw.example.dto.ProjectSummary;
+import de.tfdw.example.dto.ProjectVersion;
+import de.tfdw.example.model.ProjectEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static java.util.stream.Collectors.joining;
+
+public class ProjectEntityRepositoryCustomImpl implements ProjectEntityRepositoryCustom {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private static final Set<String> PATCHABLE_COLUMNS = Set.of("name", "description");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Keyset page ordered by primary key, so every page is an index range scan starting after the
+     * last id of the previous page instead of an OFFSET scan over all preceding rows.
+     * <p>
+     * Members of the whole page are loaded with one additional {@code IN (...)} query; joining them into
+     * the page query would multiply its rows and force Hibernate to apply the limit in memory.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProjectEntity> findPage(final UUID after, final String name, final String description, final int limit) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<ProjectEntity> query = criteriaBuilder.createQuery(ProjectEntity.class);
+        final Root<ProjectEntity> project = query.from(ProjectEntity.class);
+
+        query.select(project)
+                .where(keysetPredicates(criteriaBuilder, project, after, name, description))
+                .orderBy(criteriaBuilder.asc(project.get("id")));
+
+        final List<ProjectEntity> projects = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+        fetchProjectMembers(projects);
+
+        return projects;
+    }
+
+    @Override
+    public List<ProjectSummary> findSummaryPage(final UUID after, final String name, final String description, final int limit) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<ProjectSummary> query = criteriaBuilder.createQuery(ProjectSummary.class);
+        final Root<ProjectEntity> project = query.from(ProjectEntity.class);
+
+        query.select(criteriaBuilder.construct(ProjectSummary.class, project.get("id"), project.get("name"), project.get("description")))
+                .where(keysetPredicates(criteriaBuilder, project, after, name, description))
+                .orderBy(criteriaBuilder.asc(project.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Loads the projects together with their members in one query. The result is in no particular order.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProjectEntity> findAllWithMembersById(final Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery("select p from ProjectEntity p left join fetch p.projectMembers where p.id in :ids", ProjectEntity.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * Walks the whole table through a forward-only server-side cursor. Each project is detached (together
+     * with its members) once it was handed to the consumer, so the persistence context does not grow with
+     * the table.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachProject(final int fetchSize, final Consumer<ProjectEntity> consumer) {
+        final Session session = entityManager.unwrap(Session.class);
+
+        try (ScrollableResults<ProjectEntity> projects = session
+                .createSelectionQuery("select p from ProjectEntity p left join fetch p.projectMembers order by p.id", ProjectEntity.class)
+                .setReadOnly(true)
+                .setFetchSize(fetchSize)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (projects.next()) {
+                final ProjectEntity project = projects.get();
+                consumer.accept(project);
+                session.detach(project);
+            }
+        }
+    }
+
+    /**
+     * Updates the scalar columns of a project in a single round trip, optionally guarded by the version the
+     * caller last saw, and returns the incremented version and modification time. An empty result means that no row matched.
+     */
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public Optional<ProjectVersion> updateProject(final UUID id, final Long expectedVersion, final String name, final String description) {
+        final String versionCondition = Objects.nonNull(expectedVersion) ? " and version = :version" : "";
+        final NativeQuery<ProjectVersion> query = entityManager.unwrap(Session.class)
+                .createNativeQuery(
+                        "update project set name = :name, description = :description, version = version + 1, updated_at = :updatedAt"
+                                + " where id = :id" + versionCondition
+                                + " returning version, updated_at"
+                )
+                .addScalar("version", StandardBasicTypes.LONG)
+                .addScalar("updated_at", StandardBasicTypes.INSTANT)
+                .setTupleTransformer((tuple, aliases) -> new ProjectVersion((Long) tuple[0], (Instant) tuple[1]))
+                .setParameter("id", id)
+                .setParameter("name", name, StandardBasicTypes.STRING)
+                .setParameter("description", description, StandardBasicTypes.STRING)
+                .setParameter("updatedAt", Instant.now(), StandardBasicTypes.INSTANT);
+        if (Objects.nonNull(expectedVersion)) {
+            query.setParameter("version", expectedVersion);
+        }
+        return query.uniqueResultOptional();
+    }
+
+    /**
+     * Like {@link #updateProject(UUID, Long, String, String)}, but only writes the given columns, so a patch
+     * of the name does not send the description along. Column names are limited to name and description.
+     */
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public Optional<ProjectVersion> patchProject(final UUID id, final Long expectedVersion, final Map<String, String> columns) {
+        Assert.isTrue(PATCHABLE_COLUMNS.containsAll(columns.keySet()), "Only " + PATCHABLE_COLUMNS + " can be patched");
+        final String assignments = columns.keySet().stream()
+                .map(column -> column + " = :" + column + ", ")
+                .collect(joining());
+        final String versionCondition = Objects.nonNull(expectedVersion) ? " and version = :version" : "";
+        final NativeQuery<ProjectVersion> query = entityManager.unwrap(Session.class)
+                .createNativeQuery(
+                        "update project set " + assignments + "version = version + 1, updated_at = :updatedAt"
+                                + " where id = :id" + versionCondition
+                                + " returning version, updated_at"
+                )
+                .addScalar("version", StandardBasicTypes.LONG)
+                .addScalar("updated_at", StandardBasicTypes.INSTANT)
+                .setTupleTransformer((tuple, aliases) -> new ProjectVersion((Long) tuple[0], (Instant) tuple[1]))
+                .setParameter("id", id)
+                .setParameter("updatedAt", Instant.now(), StandardBasicTypes.INSTANT);
+        columns.forEach((column, value) -> query.setParameter(column, value, StandardBasicTypes.STRING));
+        if (Objects.nonNull(expectedVersion)) {
+            query.setParameter("version", expectedVersion);
+        }
+        return query.uniqueResultOptional();
+    }
+
+    /**
+     * Increments the version and modification time of a project whose members changed, which also locks the
+     * project row until the end of the transaction. An empty result means that the project does not exist.
+     */
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public Optional<ProjectVersion> touchProject(final UUID id) {
+        return entityManager.unwrap(Session.class)
+                .createNativeQuery(
+                        "update project set version = version + 1, updated_at = :updatedAt"
+                                + " where id = :id"
+                                + " returning version, updated_at"
+                )
+                .addScalar("version", StandardBasicTypes.LONG)
+                .addScalar("updated_at", StandardBasicTypes.INSTANT)
+                .setTupleTransformer((tuple, aliases) -> new ProjectVersion((Long) tuple[0], (Instant) tuple[1]))
+                .setParameter("id", id)
+                .setParameter("updatedAt", Instant.now(), StandardBasicTypes.INSTANT)
+                .uniqueResultOptional();
+    }
+
+    /**
+     * Same as {@link #touchProject(UUID)} for every project the member is assigned to, returned as changes.
+     */
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public List<ProjectChange> touchProjectsOfMember(final UUID projectMemberId) {
+        return entityManager.unwrap(Session.class)
+                .createNativeQuery(
+                        "update project set version = version + 1, updated_at = :updatedAt"
+                                + " where id in (select project_id from project_project_members where project_member_id = :projectMemberId)"
+                                + " returning id, version"
+                )
+                .addScalar("id", StandardBasicTypes.UUID)
+                .addScalar("version", StandardBasicTypes.LONG)
+                .setTupleTransformer((tuple, aliases) -> ProjectChange.updated((UUID) tuple[0], (Long) tuple[1]))
+                .setParameter("projectMemberId", projectMemberId)
+                .setParameter("updatedAt", Instant.now(), StandardBasicTypes.INSTANT)
+                .getResultList();
+    }
+
+    /**
+     * Deletes the given projects in one statement and returns the ids of the projects that actually existed.
+     * Their member assignments are removed by the database through {@code ON DELETE CASCADE}. Neither the
+     * projects nor their members are loaded.
+     */
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public List<UUID> deleteProjects(final Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createNativeQuery(
+                        "delete from project where id in (:ids) returning id",
+                        UUID.class
+                )
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * Sums the slots the triggers of {@code V8__spread_project_list_version.sql} keep current, instead of
+     * aggregating the project table.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public ProjectListVersion findListVersion() {
+        final NativeQuery<ProjectListVersion> query = entityManager.unwrap(Session.class)
+                .createNativeQuery("select sum(version)::bigint as version, max(updated_at) as updated_at from project_list_version_slot")
+                .addScalar("version", StandardBasicTypes.LONG)
+                .addScalar("updated_at", StandardBasicTypes.INSTANT)
+                .setTupleTransformer((tuple, aliases) -> new ProjectListVersion((Long) tuple[0], (Instant) tuple[1]));
+        return query.getSingleResult();
+    }
+
+    /**
+     * Counts the rows of the project tables with one statement, without loading any of them.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public ProjectStats findStats() {
+        final NativeQuery<ProjectStats> query = entityManager.unwrap(Session.class)
+                .createNativeQuery(
+                        "select (select count(*) from project) as projects,"
+                                + " (select count(*) from project_member) as members,"
+                                + " (select count(*) from project_project_members) as memberships"
+                )
+                .addScalar("projects", StandardBasicTypes.LONG)
+                .addScalar("members", StandardBasicTypes.LONG)
+                .addScalar("memberships", StandardBasicTypes.LONG)
+                .setTupleTransformer((tuple, aliases) -> ProjectStats.of((Long) tuple[0], (Long) tuple[1], (Long) tuple[2]));
+        return query.getSingleResult();
+    }
+
+    /**
+     * Ranked full-text search over the generated {@code search_vector} column (see {@code V2__add_project_search.sql}),
+     * served by its GIN index. Hits are ordered by rank and id, so a page continues after the rank and id of
+     * the last hit of the previous page. Only the columns of a summary are read.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<ProjectSearchHit> search(final String query, final Float afterRank, final UUID afterId, final int limit) {
+        final boolean hasCursor = Objects.nonNull(afterRank) && Objects.nonNull(afterId);
+        final NativeQuery<ProjectSearchHit> searchQuery = entityManager.unwrap(Session.class)
+                .createNativeQuery(
+                        "select id, name, description, rank from ("
+                                + " select p.id, p.name, p.description, ts_rank(p.search_vector, q) as rank"
+                                + " from project p, websearch_to_tsquery('simple', :query) q"
+                                + " where p.search_vector @@ q"
+                                + ") hits"
+                                + (hasCursor ? " where rank < :afterRank or (rank = :afterRank and id > :afterId)" : "")
+                                + " order by rank desc, id"
+                                + " limit :limit"
+                )
+                .addScalar("id", StandardBasicTypes.UUID)
+                .addScalar("name", StandardBasicTypes.STRING)
+                .addScalar("description", StandardBasicTypes.STRING)
+                .addScalar("rank", StandardBasicTypes.FLOAT)
+                .setTupleTransformer((tuple, aliases) -> new ProjectSearchHit((UUID) tuple[0], (String) tuple[1], (String) tuple[2], (Float) tuple[3]))
+                .setParameter("query", query, StandardBasicTypes.STRING)
+                .setParameter("limit", limit);
+        if (hasCursor) {
+            searchQuery.setParameter("afterRank", afterRank, StandardBasicTypes.FLOAT);
+            searchQuery.setParameter("afterId", afterId);
+        }
+        return searchQuery.getResultList();
+    }
+
+    private void fetchProjectMembers(final List<ProjectEntity> projects) {
+        findAllWithMembersById(projects.stream().map(ProjectEntity::getId).toList());
+    }
+
+    private static Predicate[] keysetPredicates(final CriteriaBuilder criteriaBuilder, final Root<ProjectEntity> project,
+                                                final UUID after, final String name, final String description) {
+        final List<Predicate> predicates = new ArrayList<>();
+        if (Objects.nonNull(after)) {
+            predicates.add(criteriaBuilder.greaterThan(project.<UUID>get("id"), after));
+        }
+        if (Objects.nonNull(name)) {
+            predicates.add(containsIgnoringCase(criteriaBuilder, project, "name", name));
+        }
+        if (Objects.nonNull(description)) {
+            predicates.add(containsIgnoringCase(criteriaBuilder, project, "description", description));
+        }
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    private static Predicate containsIgnoringCase(final CriteriaBuilder criteriaBuilder, final Root<ProjectEntity> project,
+                                                  final String attribute, final String value) {
+        final String pattern = "%" + value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return criteriaBuilder.like(criteriaBuilder.lower(project.<String>get(attribute)), pattern, LIKE_ESCAPE);
+    }
+}
@@ -0,0 +1,42 @@
+package de.tfdw.example.repository;
+
+import de.tfdw.example.model.ProjectMemberEntity;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Assignments are changed with single-row statements on {@code project_project_members}, so adding or
+ * removing one member never loads or rewrites the other members of a project.
+ */
+@Repository
+public interface ProjectMemberEntityRepository extends CrudRepository<ProjectMemberEntity, UUID> {
+
+    @Query("select m from ProjectEntity p join p.projectMembers m where p.id = :projectId")
+    List<ProjectMemberEntity> findByProjectId(@Param("projectId") UUID projectId);
+
+    @Query("select m from ProjectEntity p join p.projectMembers m where p.id = :projectId and m.id = :id")
+    Optional<ProjectMemberEntity> findByProjectIdAndId(@Param("projectId") UUID projectId, @Param("id") UUID id);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into project_project_members (project_id, project_member_id) values (:projectId, :id) on conflict do nothing", nativeQuery = true)
+    int addToProject(@Param("projectId") UUID projectId, @Param("id") UUID id);
+
+    @Modifying
+    @Query(value = "delete from project_project_members where project_id = :projectId and project_member_id = :id", nativeQuery = true)
+    int removeFromProject(@Param("projectId") UUID projectId, @Param("id") UUID id);
+
+    /**
+     * Members can be shared between projects, so a member is only deleted once no project refers to it anymore.
+     */
+    @Modifying
+    @Query(value = "delete from project_member m where m.id = :id"
+            + " and not exists (select 1 from project_project_members pm where pm.project_member_id = m.id)", nativeQuery = true)
+    int deleteIfUnassigned(@Param("id") UUID id);
+}
@@ -0,0 +1,73 @@
+package de.tfdw.example.repository;
+
+import de.tfdw.example.dto.ProjectChange;
+import de.tfdw.example.dto.ProjectChangeEntry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+@Repository
+public class ProjectOutboxRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProjectOutboxRepository(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Must run inside the transaction of the change, so the outbox row commits or rolls back with it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(final ProjectChange change) {
+        jdbcTemplate.update(
+                "insert into project_outbox (project_id, change_type, version, occurred_at) values (?, ?, ?, ?)",
+                statement -> {
+                    statement.setObject(1, change.projectId());
+                    statement.setString(2, change.type().name());
+                    if (Objects.isNull(change.version())) {
+                        statement.setNull(3, Types.BIGINT);
+                    } else {
+                        statement.setLong(3, change.version());
+                    }
+                    statement.setTimestamp(4, Timestamp.from(change.occurredAt()));
+                }
+        );
+    }
+
+    /**
+     * Reads the changes after the given transaction id and sequence, ordered by both. Sequences are assigned
+     * on insert, not on commit, so they cannot be the cursor on their own: a transaction still in flight may
+     * commit a lower sequence than one already read. Only rows of transactions below the xmin of the current
+     * snapshot are returned. Those transactions have all finished, and any transaction committing later has a
+     * higher id, so its rows sort after everything read so far.
+     */
+    public List<ProjectChangeEntry> findAfter(final long afterTransactionId, final long afterSequence, final int limit) {
+        return jdbcTemplate.query(
+                "select transaction_id::text::bigint as transaction_id, sequence, project_id, change_type, version, occurred_at"
+                        + " from project_outbox"
+                        + " where (transaction_id, sequence) > (?::text::xid8, ?)"
+                        + " and transaction_id < pg_snapshot_xmin(pg_current_snapshot())"
+                        + " order by transaction_id, sequence"
+                        + " limit ?",
+                (resultSet, rowNumber) -> new ProjectChangeEntry(
+                        resultSet.getLong("transaction_id"),
+                        resultSet.getLong("sequence"),
+                        resultSet.getObject("project_id", UUID.class),
+                        ProjectChange.Type.valueOf(resultSet.getString("change_type")),
+                        resultSet.getObject("version", Long.class),
+                        resultSet.getTimestamp("occurred_at").toInstant()
+                ),
+                Long.toString(afterTransactionId),
+                afterSequence,
+                limit
+        );
+    }
+}
@@ -0,0 +1,275 @@
+package de.tfdw.example.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import de.tfdw.example.dto.Project;
+import de.tfdw.example.dto.ProjectChange;
+import de.tfdw.example.dto.ProjectListVersion;
+import de.tfdw.example.dto.ProjectMember;
+import de.tfdw.example.dto.ProjectVersion;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+
+/**
+ * R2DBC access to the project tables for the {@code reactive} profile. Reads map rows straight to the
+ * {@link Project} and {@link ProjectMember} records, there is no entity or persistence context in between.
+ */
+@Repository
+@ConditionalOnWebApplication(type = REACTIVE)
+public class ReactiveProjectRepository {
+
+    private static final TypeReference<List<ProjectMember>> MEMBER_LIST = new TypeReference<>() {
+    };
+
+    private static final String PROJECT_COLUMNS = "id, name, description, version, updated_at";
+
+    private static final String MEMBER_COLUMNS = "m.id, m.first_name, m.last_name, m.email, m.pronouns, m.description, m.image_reference";
+
+    /**
+     * The members of project {@code p} as a JSON array, selected with the project so reading projects never
+     * needs a second connection while the statement reading them still holds one.
+     */
+    private static final String MEMBERS_COLUMN = "(select json_agg(json_build_object("
+            + "'projectMemberId', m.id, 'firstName', m.first_name, 'lastName', m.last_name, 'email', m.email,"
+            + " 'pronouns', m.pronouns, 'description', m.description, 'imageReference', m.image_reference) order by m.id)::text"
+            + " from project_project_members pm join project_member m on m.id = pm.project_member_id"
+            + " where pm.project_id = p.id) as members";
+
+    private static final String PROJECT_WITH_MEMBERS_COLUMNS = PROJECT_COLUMNS + ", " + MEMBERS_COLUMN;
+
+    private final DatabaseClient databaseClient;
+
+    private final ObjectReader memberListReader;
+
+    public ReactiveProjectRepository(final DatabaseClient databaseClient, final ObjectMapper objectMapper) {
+        this.databaseClient = databaseClient;
+        this.memberListReader = objectMapper.readerFor(MEMBER_LIST);
+    }
+
+    /**
+     * Keyset page ordered by primary key with the same filters as {@link ProjectEntityRepositoryCustom#findPage}.
+     */
+    public Flux<Project> findPage(final UUID after, final String name, final String description, final int limit) {
+        final List<String> conditions = new ArrayList<>();
+        final Map<String, Object> parameters = new LinkedHashMap<>();
+        if (Objects.nonNull(after)) {
+            conditions.add("id > :after");
+            parameters.put("after", after);
+        }
+        if (Objects.nonNull(name)) {
+            conditions.add("lower(name) like :name escape '\\'");
+            parameters.put("name", containsPattern(name));
+        }
+        if (Objects.nonNull(description)) {
+            conditions.add("lower(description) like :description escape '\\'");
+            parameters.put("description", containsPattern(description));
+        }
+        parameters.put("limit", limit);
+
+        DatabaseClient.GenericExecuteSpec statement = databaseClient.sql("select " + PROJECT_WITH_MEMBERS_COLUMNS + " from project p"
+                + (conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions))
+                + " order by id limit :limit");
+        for (final Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            statement = statement.bind(parameter.getKey(), parameter.getValue());
+        }
+        return statement.map(this::mapProject).all();
+    }
+
+    /**
+     * Streams the whole table ordered by id. Rows are fetched from a server-side cursor as the subscriber
+     * requests them, so a slow consumer holds back the query instead of buffering the table.
+     */
+    public Flux<Project> findAll(final int fetchSize) {
+        return databaseClient.sql("select " + PROJECT_WITH_MEMBERS_COLUMNS + " from project p order by id")
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(this::mapProject)
+                .all();
+    }
+
+    public Mono<Project> findById(final UUID id) {
+        return databaseClient.sql("select " + PROJECT_WITH_MEMBERS_COLUMNS + " from project p where id = :id")
+                .bind("id", id)
+                .map(this::mapProject)
+                .one();
+    }
+
+    public Mono<ProjectVersion> findVersionById(final UUID id) {
+        return databaseClient.sql("select version, updated_at from project where id = :id")
+                .bind("id", id)
+                .map(ReactiveProjectRepository::mapVersion)
+                .one();
+    }
+
+    public Mono<ProjectListVersion> findListVersion() {
+        return databaseClient.sql("select sum(version)::bigint as version, max(updated_at) as updated_at from project_list_version_slot")
+                .map(row -> new ProjectListVersion(row.get("version", Long.class), row.get("updated_at", Instant.class)))
+                .one();
+    }
+
+    public Mono<Boolean> existsById(final UUID id) {
+        return databaseClient.sql("select exists (select 1 from project where id = :id)")
+                .bind("id", id)
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+
+    public Flux<ProjectMember> findMembersById(final Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql("select " + MEMBER_COLUMNS + " from project_member m where m.id = any(:ids)")
+                .bind("ids", ids.toArray(UUID[]::new))
+                .map(ReactiveProjectRepository::mapMember)
+                .all();
+    }
+
+    public Mono<ProjectVersion> insertProject(final UUID id, final String name, final String description, final Instant updatedAt) {
+        return databaseClient.sql("insert into project (id, name, description, version, updated_at)"
+                        + " values (:id, :name, :description, 0, :updatedAt)"
+                        + " returning version, updated_at")
+                .bind("id", id)
+                .bind("name", Parameter.fromOrEmpty(name, String.class))
+                .bind("description", Parameter.fromOrEmpty(description, String.class))
+                .bind("updatedAt", updatedAt)
+                .map(ReactiveProjectRepository::mapVersion)
+                .one();
+    }
+
+    public Mono<Void> insertMembers(final Collection<ProjectMember> members) {
+        return Flux.fromIterable(members)
+                .concatMap(member -> databaseClient.sql("insert into project_member"
+                                + " (id, first_name, last_name, email, pronouns, description, image_reference)"
+                                + " values (:id, :firstName, :lastName, :email, :pronouns, :description, :imageReference)")
+                        .bind("id", member.projectMemberId())
+                        .bind("firstName", Parameter.fromOrEmpty(member.firstName(), String.class))
+                        .bind("lastName", Parameter.fromOrEmpty(member.lastName(), String.class))
+                        .bind("email", Parameter.fromOrEmpty(member.email(), String.class))
+                        .bind("pronouns", Parameter.fromOrEmpty(member.pronouns(), String.class))
+                        .bind("description", Parameter.fromOrEmpty(member.description(), String.class))
+                        .bind("imageReference", Parameter.fromOrEmpty(member.imageReference(), String.class))
+                        .then())
+                .then();
+    }
+
+    public Mono<Void> addMembersToProject(final UUID projectId, final Collection<UUID> memberIds) {
+        if (memberIds.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.sql("insert into project_project_members (project_id, project_member_id)"
+                        + " select :projectId, unnest(:memberIds) on conflict do nothing")
+                .bind("projectId", projectId)
+                .bind("memberIds", memberIds.toArray(UUID[]::new))
+                .then();
+    }
+
+    /**
+     * Same statement as {@link ProjectEntityRepositoryCustom#updateProject}: empty if the project does not
+     * exist or, with an expected version, has a different version.
+     */
+    public Mono<ProjectVersion> updateProject(final UUID id, final Long expectedVersion, final String name, final String description,
+                                              final Instant updatedAt) {
+        DatabaseClient.GenericExecuteSpec statement = databaseClient.sql("update project"
+                        + " set name = :name, description = :description, version = version + 1, updated_at = :updatedAt"
+                        + " where id = :id"
+                        + (Objects.isNull(expectedVersion) ? "" : " and version = :expectedVersion")
+                        + " returning version, updated_at")
+                .bind("id", id)
+                .bind("name", Parameter.fromOrEmpty(name, String.class))
+                .bind("description", Parameter.fromOrEmpty(description, String.class))
+                .bind("updatedAt", updatedAt);
+        if (Objects.nonNull(expectedVersion)) {
+            statement = statement.bind("expectedVersion", expectedVersion);
+        }
+        return statement
+                .map(ReactiveProjectRepository::mapVersion)
+                .one();
+    }
+
+    /**
+     * Returns the version of the deleted project, or nothing if it did not exist. Member assignments are
+     * removed by {@code ON DELETE CASCADE}.
+     */
+    public Mono<Long> deleteById(final UUID id) {
+        return databaseClient.sql("delete from project where id = :id returning version")
+                .bind("id", id)
+                .map(row -> row.get("version", Long.class))
+                .one();
+    }
+
+    /**
+     * Same row as {@link ProjectOutboxRepository#append}. Has to run in the transaction of the change.
+     */
+    public Mono<Void> appendToOutbox(final ProjectChange change) {
+        return databaseClient.sql("insert into project_outbox (project_id, change_type, version, occurred_at)"
+                        + " values (:projectId, :changeType, :version, :occurredAt)")
+                .bind("projectId", change.projectId())
+                .bind("changeType", change.type().name())
+                .bind("version", Parameter.fromOrEmpty(change.version(), Long.class))
+                .bind("occurredAt", change.occurredAt())
+                .then();
+    }
+
+    private Project mapProject(final Readable row) {
+        return new Project(
+                row.get("id", UUID.class),
+                row.get("name", String.class),
+                row.get("description", String.class),
+                readMembers(row.get("members", String.class)),
+                row.get("version", Long.class),
+                row.get("updated_at", Instant.class)
+        );
+    }
+
+    private List<ProjectMember> readMembers(final String members) {
+        if (Objects.isNull(members)) {
+            return List.of();
+        }
+        try {
+            return memberListReader.readValue(members);
+        } catch (final JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable project members " + members, e);
+        }
+    }
+
+    private static ProjectMember mapMember(final Readable row) {
+        return new ProjectMember(
+                row.get("id", UUID.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("email", String.class),
+                row.get("pronouns", String.class),
+                row.get("description", String.class),
+                row.get("image_reference", String.class)
+        );
+    }
+
+    private static ProjectVersion mapVersion(final Readable row) {
+        return new ProjectVersion(row.get("version", Long.class), row.get("updated_at", Instant.class));
+    }
+
+    private static String containsPattern(final String value) {
+        return "%" + value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+}
@@ -0,0 +1,304 @@
+package de.tfdw.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import de.tfdw.example.dto.BulkItemResult;
+import de.tfdw.example.dto.Project;
+import de.tfdw.example.dto.ProjectChange;
+import de.tfdw.example.model.ProjectEntity;
+import de.tfdw.example.model.ProjectMemberEntity;
+import de.tfdw.example.repository.ProjectEntityRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static de.tfdw.example.configuration.CacheConfig.PROJECTS;
+import static de.tfdw.example.configuration.MetricsConfig.SERVICE_TIMER;
+import static java.util.stream.Collectors.joining;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.NOT_ACCEPTABLE;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.OK;
+
+/**
+ * Applies large numbers of project mutations in chunks. Every chunk runs in its own transaction, so
+ * Hibernate can send its inserts, updates and deletes as JDBC batches, and a failing chunk only fails
+ * its own items.
+ */
+@Service
+public class ProjectBulkService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProjectBulkService.class);
+
+    private static final String CHUNK_FAILED = "The chunk of this item could not be stored, none of its changes were applied";
+
+    private final ProjectEntityRepository projectEntityRepository;
+
+    private final ProjectMemberService projectMemberService;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Cache projectCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int chunkSize;
+
+    public ProjectBulkService(final ProjectEntityRepository projectEntityRepository,
+                              final ProjectMemberService projectMemberService,
+                              final Validator validator,
+                              final PlatformTransactionManager transactionManager,
+                              final CacheManager cacheManager,
+                              final ApplicationEventPublisher eventPublisher,
+                              @Value("${project.bulk.chunk-size:500}") final int chunkSize) {
+        this.projectEntityRepository = projectEntityRepository;
+        this.projectMemberService = projectMemberService;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.projectCache = Objects.requireNonNull(cacheManager.getCache(PROJECTS), "Cache " + PROJECTS + " is not configured");
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates every project without an id and updates every project with an id. Results are reported per
+     * item, in the order the projects were read.
+     * <p>
+     * An item is the complete project, so an update replaces the members of the project with the members of
+     * the item. This differs from {@link ProjectService#updateProject}, which leaves members as they are.
+     * <p>
+     * Items that are null or cannot be read are reported as not acceptable. The chunks before them have
+     * already been committed. A reader that throws a {@link RuntimeJsonMappingException} has skipped the
+     * unreadable item and reading goes on. Any other read error, such as malformed JSON, leaves no position
+     * to continue from, so the items after it are not read.
+     */
+    @Timed(SERVICE_TIMER)
+    public List<BulkItemResult> upsertProjects(final Iterator<Project> projects) {
+        final List<BulkItemResult> results = new ArrayList<>();
+        final List<Item<Project>> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+
+        while (true) {
+            final Project project;
+            try {
+                if (!projects.hasNext()) {
+                    break;
+                }
+                project = projects.next();
+            } catch (final RuntimeJsonMappingException e) {
+                results.add(new BulkItemResult(index++, null, NOT_ACCEPTABLE.value(), unreadable(e)));
+                continue;
+            } catch (final RuntimeException e) {
+                if (!(e.getCause() instanceof JsonProcessingException)) {
+                    throw e;
+                }
+                results.add(new BulkItemResult(index, null, NOT_ACCEPTABLE.value(), unreadable(e) + ", the remaining items were not read"));
+                break;
+            }
+
+            final String invalidity = validate(project);
+            if (Objects.isNull(invalidity)) {
+                chunk.add(new Item<>(index, project));
+            } else {
+                results.add(new BulkItemResult(index, Objects.isNull(project) ? null : project.projectId(), NOT_ACCEPTABLE.value(), invalidity));
+            }
+            index++;
+
+            if (chunk.size() == chunkSize) {
+                results.addAll(processChunk(chunk, this::upsertChunk, Project::projectId));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(processChunk(chunk, this::upsertChunk, Project::projectId));
+        }
+
+        results.sort(Comparator.comparingInt(BulkItemResult::index));
+        return results;
+    }
+
+    @Timed(SERVICE_TIMER)
+    public List<BulkItemResult> deleteProjects(final List<UUID> projectIds) {
+        final List<BulkItemResult> results = new ArrayList<>(projectIds.size());
+
+        for (int start = 0; start < projectIds.size(); start += chunkSize) {
+            final List<Item<UUID>> chunk = new ArrayList<>(chunkSize);
+            for (int index = start; index < Math.min(start + chunkSize, projectIds.size()); index++) {
+                chunk.add(new Item<>(index, projectIds.get(index)));
+            }
+            results.addAll(processChunk(chunk, this::deleteChunk, Function.identity()));
+        }
+
+        return results;
+    }
+
+    private <T> List<BulkItemResult> processChunk(final List<Item<T>> chunk,
+                                                  final BiFunction<List<Item<T>>, List<BulkItemResult>, List<UUID>> operation,
+                                                  final Function<T, UUID> idOf) {
+        final List<BulkItemResult> results = new ArrayList<>(chunk.size());
+        try {
+            final List<UUID> changedIds = transactionTemplate.execute(status -> operation.apply(chunk, results));
+            changedIds.forEach(projectCache::evict);
+            return results;
+        } catch (final DataAccessException | TransactionException e) {
+            LOGGER.warn("Rolled back the bulk chunk of {} items starting at item {}", chunk.size(), chunk.get(0).index(), e);
+            return failedChunk(chunk, results, idOf);
+        }
+    }
+
+    /**
+     * Keeps the items that were rejected on their own, they would have been rejected without the failure as
+     * well. Every other item was rolled back with the chunk and is reported as failed.
+     */
+    private static <T> List<BulkItemResult> failedChunk(final List<Item<T>> chunk, final List<BulkItemResult> results,
+                                                        final Function<T, UUID> idOf) {
+        final Map<Integer, BulkItemResult> rejected = new HashMap<>();
+        for (final BulkItemResult result : results) {
+            if (!HttpStatusCode.valueOf(result.status()).is2xxSuccessful()) {
+                rejected.put(result.index(), result);
+            }
+        }
+        final List<BulkItemResult> failed = new ArrayList<>(chunk.size());
+        for (final Item<T> item : chunk) {
+            final BulkItemResult result = rejected.get(item.index());
+            failed.add(Objects.nonNull(result)
+                    ? result
+                    : new BulkItemResult(item.index(), idOf.apply(item.value()), INTERNAL_SERVER_ERROR.value(), CHUNK_FAILED));
+        }
+        return failed;
+    }
+
+    private List<UUID> upsertChunk(final List<Item<Project>> chunk, final List<BulkItemResult> results) {
+        final List<Item<Project>> creates = chunk.stream().filter(item -> Objects.isNull(item.value().projectId())).toList();
+        final List<Item<Project>> updates = chunk.stream().filter(item -> Objects.nonNull(item.value().projectId())).toList();
+        final Map<UUID, ProjectMemberEntity> referencedMembers = projectMemberService.findReferencedMembers(chunk.stream()
+                .map(item -> item.value().projectMembers())
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .toList());
+
+        final List<Item<Project>> validCreates = new ArrayList<>(creates.size());
+        final List<ProjectEntity> createdEntities = new ArrayList<>(creates.size());
+        for (final Item<Project> item : creates) {
+            final Set<ProjectMemberEntity> members = resolveProjectMembers(item, referencedMembers, results);
+            if (Objects.nonNull(members)) {
+                validCreates.add(item);
+                createdEntities.add(new ProjectEntity(item.value().name(), item.value().description(), members));
+            }
+        }
+        projectEntityRepository.saveAll(createdEntities);
+        for (int i = 0; i < validCreates.size(); i++) {
+            final ProjectEntity createdEntity = createdEntities.get(i);
+            results.add(new BulkItemResult(validCreates.get(i).index(), createdEntity.getId(), CREATED.value(), null));
+            eventPublisher.publishEvent(ProjectChange.created(createdEntity.getId(), createdEntity.getVersion()));
+        }
+
+        final Map<UUID, ProjectEntity> existingEntities = new HashMap<>();
+        projectEntityRepository
+                .findAllById(updates.stream().map(item -> item.value().projectId()).toList())
+                .forEach(entity -> existingEntities.put(entity.getId(), entity));
+
+        final List<UUID> updatedIds = new ArrayList<>(updates.size());
+        for (final Item<Project> item : updates) {
+            final Project project = item.value();
+            final ProjectEntity entity = existingEntities.get(project.projectId());
+            if (Objects.isNull(entity)) {
+                results.add(new BulkItemResult(item.index(), project.projectId(), NOT_FOUND.value(), null));
+                continue;
+            }
+            final Set<ProjectMemberEntity> members = resolveProjectMembers(item, referencedMembers, results);
+            if (Objects.isNull(members)) {
+                continue;
+            }
+            entity.setName(project.name());
+            entity.setDescription(project.description());
+            entity.setProjectMembers(members);
+            updatedIds.add(project.projectId());
+            results.add(new BulkItemResult(item.index(), project.projectId(), OK.value(), null));
+            eventPublisher.publishEvent(ProjectChange.updated(project.projectId(), null));
+        }
+
+        return updatedIds;
+    }
+
+    private List<UUID> deleteChunk(final List<Item<UUID>> chunk, final List<BulkItemResult> results) {
+        final List<UUID> deletedIds = projectEntityRepository.deleteProjects(chunk.stream().map(Item::value).toList());
+
+        for (final Item<UUID> item : chunk) {
+            final int status = deletedIds.contains(item.value()) ? OK.value() : NOT_FOUND.value();
+            results.add(new BulkItemResult(item.index(), item.value(), status, null));
+        }
+        deletedIds.forEach(id -> eventPublisher.publishEvent(ProjectChange.deleted(id, null)));
+
+        return deletedIds;
+    }
+
+    /**
+     * Returns null after reporting the item as failed if it refers to unknown members.
+     */
+    private Set<ProjectMemberEntity> resolveProjectMembers(final Item<Project> item, final Map<UUID, ProjectMemberEntity> referencedMembers,
+                                                           final List<BulkItemResult> results) {
+        try {
+            return projectMemberService.resolveProjectMembers(item.value().projectMembers(), referencedMembers);
+        } catch (final ResponseStatusException e) {
+            results.add(new BulkItemResult(item.index(), item.value().projectId(), e.getStatusCode().value(), e.getReason()));
+            return null;
+        }
+    }
+
+    /**
+     * Returns why the project cannot be upserted, or null if it can.
+     */
+    private String validate(final Project project) {
+        if (Objects.isNull(project)) {
+            return "Project must not be null";
+        }
+        if (Objects.nonNull(project.projectMembers()) && project.projectMembers().stream().anyMatch(Objects::isNull)) {
+            return "projectMembers must not contain null";
+        }
+        final Set<ConstraintViolation<Project>> violations = validator.validate(project);
+        return violations.isEmpty() ? null : describe(violations);
+    }
+
+    private static String unreadable(final RuntimeException e) {
+        return e.getCause() instanceof JsonProcessingException cause ? cause.getOriginalMessage() : e.getMessage();
+    }
+
+    private static String describe(final Set<ConstraintViolation<Project>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(joining(", "));
+    }
+
+    private record Item<T>(int index, T value) {
+    }
+}
@@ -0,0 +1,173 @@
+package de.tfdw.example.service;
+
+import de.tfdw.example.dto.ProjectChange;
+import de.tfdw.example.dto.ProjectChangeBatch;
+import de.tfdw.example.dto.ProjectChangeEntry;
+import de.tfdw.example.repository.ProjectOutboxRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static de.tfdw.example.configuration.MetricsConfig.SERVICE_TIMER;
+import static java.util.Collections.emptyList;
+import static org.springframework.http.HttpStatus.NOT_ACCEPTABLE;
+
+/**
+ * Incremental feed of project changes backed by {@code project_outbox}, so consumers can follow the table
+ * with work proportional to the number of changes instead of re-reading it.
+ * <p>
+ * A request that finds no changes is parked until a change commits on this instance or the poll timeout
+ * passes. Changes committed by other instances are picked up by the next poll at the latest.
+ */
+@Service
+public class ProjectChangeFeed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProjectChangeFeed.class);
+
+    private static final String CURSOR_SEPARATOR = "_";
+
+    private final ProjectOutboxRepository projectOutboxRepository;
+
+    private final Duration pollTimeout;
+
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean wakeUpScheduled = new AtomicBoolean();
+
+    public ProjectChangeFeed(final ProjectOutboxRepository projectOutboxRepository,
+                             final MeterRegistry meterRegistry,
+                             @Value("${project.changes.feed.poll-timeout:30s}") final Duration pollTimeout) {
+        this.projectOutboxRepository = projectOutboxRepository;
+        this.pollTimeout = pollTimeout;
+        meterRegistry.gaugeCollectionSize("project.changes.feed.waiting", Tags.empty(), waiters);
+    }
+
+    /**
+     * Writes the change to the outbox in the transaction that made it, so a rolled back change never shows
+     * up in the feed and a committed one always does.
+     */
+    @EventListener
+    public void appendToOutbox(final ProjectChange change) {
+        projectOutboxRepository.append(change);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProjectChange(final ProjectChange change) {
+        if (!waiters.isEmpty() && wakeUpScheduled.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("project-change-feed").start(this::completeWaiters);
+        }
+    }
+
+    /**
+     * Returns the changes after the cursor {@code since} right away if there are any, otherwise once the next
+     * change commits or, with no changes, when the poll timeout has passed. Without a cursor the changes are
+     * read from the beginning.
+     */
+    @Timed(SERVICE_TIMER)
+    public DeferredResult<ProjectChangeBatch> pollChanges(final String since, final int limit) {
+        final Cursor cursor = Cursor.parse(since);
+        final DeferredResult<ProjectChangeBatch> result = new DeferredResult<>(pollTimeout.toMillis());
+        final Waiter waiter = new Waiter(cursor, limit, result);
+        result.onTimeout(() -> result.setResult(new ProjectChangeBatch(emptyList(), cursor.toString())));
+        result.onCompletion(() -> waiters.remove(waiter));
+
+        // registered before reading, so a change committing in between still wakes this request up
+        waiters.add(waiter);
+        final List<ProjectChangeEntry> changes = findAfter(cursor, limit);
+        if (!changes.isEmpty()) {
+            waiters.remove(waiter);
+            result.setResult(toBatch(cursor, changes));
+        }
+        return result;
+    }
+
+    private void completeWaiters() {
+        wakeUpScheduled.set(false);
+        for (final Waiter waiter : waiters) {
+            try {
+                final List<ProjectChangeEntry> changes = findAfter(waiter.since(), waiter.limit());
+                if (!changes.isEmpty()) {
+                    waiter.result().setResult(toBatch(waiter.since(), changes));
+                }
+            } catch (final RuntimeException e) {
+                LOGGER.warn("Could not read changes after {}", waiter.since(), e);
+            }
+        }
+    }
+
+    /**
+     * Reads without a read-only transaction, so from the primary even with read replicas. That also holds on
+     * the wake-up thread, which does not carry the routing decision of the parked requests, and a change that
+     * woke the feed up is never missed because a replica has not replayed it yet.
+     */
+    private List<ProjectChangeEntry> findAfter(final Cursor cursor, final int limit) {
+        return projectOutboxRepository.findAfter(cursor.transactionId(), cursor.sequence(), limit);
+    }
+
+    private static ProjectChangeBatch toBatch(final Cursor since, final List<ProjectChangeEntry> changes) {
+        if (changes.isEmpty()) {
+            return new ProjectChangeBatch(changes, since.toString());
+        }
+        final ProjectChangeEntry last = changes.get(changes.size() - 1);
+        return new ProjectChangeBatch(changes, new Cursor(last.transactionId(), last.sequence()).toString());
+    }
+
+    /**
+     * Position in the outbox: the transaction id and sequence of the last change read.
+     */
+    private record Cursor(long transactionId, long sequence) {
+
+        private static final Cursor START = new Cursor(0, 0);
+
+        private static Cursor parse(final String value) {
+            if (Objects.isNull(value) || value.isBlank()) {
+                return START;
+            }
+            final int separator = value.indexOf(CURSOR_SEPARATOR);
+            final Cursor cursor;
+            try {
+                cursor = new Cursor(Long.parseLong(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+            } catch (final IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new ResponseStatusException(NOT_ACCEPTABLE, "Invalid change cursor");
+            }
+            if (cursor.transactionId() < 0 || cursor.sequence() < 0) {
+                throw new ResponseStatusException(NOT_ACCEPTABLE, "Invalid change cursor");
+            }
+            return cursor;
+        }
+
+        @Override
+        public String toString() {
+            return transactionId + CURSOR_SEPARATOR + sequence;
+        }
+    }
+
+    private record Waiter(Cursor since, int limit, DeferredResult<ProjectChangeBatch> result) {
+
+        @Override
+        public boolean equals(final Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
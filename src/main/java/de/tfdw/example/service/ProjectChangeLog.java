@@ -0,0 +1,185 @@
+package de.tfdw.example.service;
+
+import de.tfdw.example.dto.ProjectChange;
+import de.tfdw.example.repository.ProjectChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind log of project changes. Committed changes are put into a bounded in-memory queue, and a
+ * single background thread appends them to {@code project_change} in batches, so mutations do not wait for
+ * their audit insert.
+ * <p>
+ * Publishing never waits: when the queue is full the change is dropped right away and counted in
+ * {@code project.changes.dropped}, so a backed up log cannot stall requests. A batch that cannot be appended
+ * is retried with exponential backoff before its changes are counted in {@code project.changes.failed}.
+ * On shutdown the queue is drained before the database goes away.
+ */
+@Service
+public class ProjectChangeLog implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProjectChangeLog.class);
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(200);
+
+    private final ProjectChangeRepository projectChangeRepository;
+
+    private final BlockingQueue<ProjectChange> queue;
+
+    private final int batchSize;
+
+    private final int writeAttempts;
+
+    private final Duration retryBackoff;
+
+    private final Duration shutdownTimeout;
+
+    private final Counter droppedChanges;
+
+    private final Counter writtenChanges;
+
+    private final Counter failedChanges;
+
+    private final Timer lag;
+
+    private final Timer batchWrites;
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    public ProjectChangeLog(final ProjectChangeRepository projectChangeRepository,
+                            final MeterRegistry meterRegistry,
+                            @Value("${project.changes.queue-capacity:10000}") final int queueCapacity,
+                            @Value("${project.changes.batch-size:500}") final int batchSize,
+                            @Value("${project.changes.write-attempts:5}") final int writeAttempts,
+                            @Value("${project.changes.retry-backoff:200ms}") final Duration retryBackoff,
+                            @Value("${project.changes.shutdown-timeout:30s}") final Duration shutdownTimeout) {
+        this.projectChangeRepository = projectChangeRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.writeAttempts = writeAttempts;
+        this.retryBackoff = retryBackoff;
+        this.shutdownTimeout = shutdownTimeout;
+
+        meterRegistry.gauge("project.changes.queue.size", queue, BlockingQueue::size);
+        this.droppedChanges = meterRegistry.counter("project.changes.dropped");
+        this.writtenChanges = meterRegistry.counter("project.changes.written");
+        this.failedChanges = meterRegistry.counter("project.changes.failed");
+        this.lag = Timer.builder("project.changes.lag")
+                .description("Time between a change and its append to the change log")
+                .register(meterRegistry);
+        this.batchWrites = Timer.builder("project.changes.batch")
+                .description("Time spent appending one batch of changes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Only committed changes are logged. Changes made outside of a transaction are logged right away.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChange(final ProjectChange change) {
+        if (!queue.offer(change)) {
+            droppedChanges.increment();
+            LOGGER.warn("Change log queue is full, dropped {} of project {}", change.type(), change.projectId());
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::drain, "project-change-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(shutdownTimeout.toMillis());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            LOGGER.warn("Change log stopped with {} unwritten changes", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server, so no request can publish a change the writer will not
+     * see anymore.
+     */
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    private void drain() {
+        final List<ProjectChange> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                final ProjectChange first = queue.poll(POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+                if (Objects.isNull(first)) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeWithRetries(batch);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Changes keep queueing up behind a batch that is retried, and are dropped once the queue is full.
+     */
+    private void writeWithRetries(final List<ProjectChange> batch) throws InterruptedException {
+        // the batch list is reused for the next batch
+        final List<ProjectChange> changes = List.copyOf(batch);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                batchWrites.record(() -> projectChangeRepository.appendAll(changes));
+                writtenChanges.increment(changes.size());
+                final Instant now = Instant.now();
+                changes.forEach(change -> lag.record(Duration.between(change.occurredAt(), now)));
+                return;
+            } catch (final RuntimeException e) {
+                if (attempt >= writeAttempts) {
+                    failedChanges.increment(changes.size());
+                    LOGGER.error("Could not append {} changes to the change log after {} attempts", changes.size(), attempt, e);
+                    return;
+                }
+                final long backoffMillis = retryBackoff.toMillis() << (attempt - 1);
+                LOGGER.warn("Could not append {} changes to the change log, retrying in {} ms", changes.size(), backoffMillis, e);
+                Thread.sleep(backoffMillis);
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package de.tfdw.example.service;
+
+import de.tfdw.example.dto.ProjectChange;
+import de.tfdw.example.dto.ProjectMapper;
+import de.tfdw.example.dto.ProjectMember;
+import de.tfdw.example.dto.ProjectVersion;
+import de.tfdw.example.model.ProjectMemberEntity;
+import de.tfdw.example.repository.ProjectEntityRepository;
+import de.tfdw.example.repository.ProjectMemberEntityRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import static de.tfdw.example.configuration.CacheConfig.PROJECTS;
+import static de.tfdw.example.configuration.MetricsConfig.SERVICE_TIMER;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toSet;
+import static org.springframework.http.HttpStatus.NOT_ACCEPTABLE;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+/**
+ * Changes the members of a project one at a time. Every change increments the version of the affected
+ * projects, so their ETags, the list version and the change feed see it like any other project update.
+ */
+@Service
+public class ProjectMemberService {
+
+    private final ProjectEntityRepository projectEntityRepository;
+
+    private final ProjectMemberEntityRepository projectMemberEntityRepository;
+
+    private final ProjectMapper projectMapper;
+
+    private final Validator validator;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Cache projectCache;
+
+    public ProjectMemberService(final ProjectEntityRepository projectEntityRepository,
+                                final ProjectMemberEntityRepository projectMemberEntityRepository,
+                                final ProjectMapper projectMapper,
+                                final Validator validator,
+                                final ApplicationEventPublisher eventPublisher,
+                                final CacheManager cacheManager) {
+        this.projectEntityRepository = projectEntityRepository;
+        this.projectMemberEntityRepository = projectMemberEntityRepository;
+        this.projectMapper = projectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        // evictions wait for the commit, so a concurrent load cannot cache the member as it was before
+        this.projectCache = new TransactionAwareCacheDecorator(
+                Objects.requireNonNull(cacheManager.getCache(PROJECTS), "Cache " + PROJECTS + " is not configured"));
+    }
+
+    /**
+     * Members without an id are created, members with an id refer to existing members whose details stay
+     * as they are. All referenced members are loaded with one query.
+     */
+    public Set<ProjectMemberEntity> resolveProjectMembers(final List<ProjectMember> projectMembers) {
+        if (Objects.isNull(projectMembers) || projectMembers.isEmpty()) {
+            return new LinkedHashSet<>();
+        }
+        return resolveProjectMembers(projectMembers, findReferencedMembers(projectMembers));
+    }
+
+    /**
+     * Loads the existing members the given members refer to by id with one query, for callers resolving
+     * the members of many projects at once.
+     */
+    public Map<UUID, ProjectMemberEntity> findReferencedMembers(final Collection<ProjectMember> projectMembers) {
+        final Set<UUID> referencedIds = projectMembers.stream()
+                .map(ProjectMember::projectMemberId)
+                .filter(Objects::nonNull)
+                .collect(toSet());
+        final Map<UUID, ProjectMemberEntity> existingMembers = new HashMap<>();
+        if (!referencedIds.isEmpty()) {
+            projectMemberEntityRepository.findAllById(referencedIds)
+                    .forEach(member -> existingMembers.put(member.getId(), member));
+        }
+        return existingMembers;
+    }
+
+    /**
+     * Like {@link #resolveProjectMembers(List)}, with the referenced members loaded before by
+     * {@link #findReferencedMembers}.
+     */
+    public Set<ProjectMemberEntity> resolveProjectMembers(final List<ProjectMember> projectMembers,
+                                                          final Map<UUID, ProjectMemberEntity> existingMembers) {
+        final Set<ProjectMemberEntity> resolvedMembers = new LinkedHashSet<>();
+        if (Objects.isNull(projectMembers)) {
+            return resolvedMembers;
+        }
+
+        for (final ProjectMember projectMember : projectMembers) {
+            if (Objects.isNull(projectMember.projectMemberId())) {
+                resolvedMembers.add(projectMapper.mapToProjectMemberEntity(projectMember));
+                continue;
+            }
+            final ProjectMemberEntity existingMember = existingMembers.get(projectMember.projectMemberId());
+            if (Objects.isNull(existingMember)) {
+                throw new ResponseStatusException(NOT_ACCEPTABLE, "Unknown project member " + projectMember.projectMemberId());
+            }
+            resolvedMembers.add(existingMember);
+        }
+        return resolvedMembers;
+    }
+
+    @Timed(SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public List<ProjectMember> getProjectMembers(final UUID projectID) {
+        final List<ProjectMemberEntity> projectMembers = projectMemberEntityRepository.findByProjectId(projectID);
+        if (projectMembers.isEmpty() && !projectEntityRepository.existsById(projectID)) {
+            throw new ResponseStatusException(NOT_FOUND);
+        }
+        return projectMembers.stream()
+                .map(projectMapper::mapFromProjectMemberEntity)
+                .toList();
+    }
+
+    /**
+     * Assigns a new or, if the member has an id, an existing member to the project. Assigning a member twice
+     * has no further effect.
+     */
+    @Timed(SERVICE_TIMER)
+    @Transactional
+    @CacheEvict(cacheNames = PROJECTS, key = "#projectID")
+    public ProjectMember addProjectMember(final UUID projectID, final ProjectMember projectMember) {
+        touchProject(projectID);
+
+        final ProjectMemberEntity member = resolveProjectMembers(List.of(projectMember)).iterator().next();
+        if (member.isNew()) {
+            projectMemberEntityRepository.save(member);
+        }
+        projectMemberEntityRepository.addToProject(projectID, member.getId());
+
+        return projectMapper.mapFromProjectMemberEntity(member);
+    }
+
+    /**
+     * Applies a JSON merge patch to the member: fields in the patch are set, fields set to null are cleared,
+     * and the resulting member must still be valid. Members can be shared, so every project the member is
+     * assigned to changes and is evicted from the cache once the change has committed.
+     */
+    @Timed(SERVICE_TIMER)
+    @Transactional
+    public ProjectMember updateProjectMember(final UUID projectID, final UUID projectMemberID, final Map<String, Object> patch) {
+        final ProjectMemberEntity member = projectMemberEntityRepository
+                .findByProjectIdAndId(projectID, projectMemberID)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND));
+
+        for (final Map.Entry<String, Object> field : patch.entrySet()) {
+            switch (field.getKey()) {
+                case "firstName" -> member.setFirstName(stringValue(field));
+                case "lastName" -> member.setLastName(stringValue(field));
+                case "email" -> member.setEmail(stringValue(field));
+                case "pronouns" -> member.setPronouns(stringValue(field));
+                case "description" -> member.setDescription(stringValue(field));
+                case "imageReference" -> member.setImageReference(stringValue(field));
+                case "projectMemberId" -> {
+                    if (!projectMemberID.toString().equals(String.valueOf(field.getValue()))) {
+                        throw new ResponseStatusException(NOT_ACCEPTABLE, "ProjectMemberIDs do not match");
+                    }
+                }
+                default -> throw new ResponseStatusException(NOT_ACCEPTABLE, field.getKey() + " cannot be patched");
+            }
+        }
+
+        final ProjectMember updatedMember = projectMapper.mapFromProjectMemberEntity(member);
+        final Set<ConstraintViolation<ProjectMember>> violations = validator.validate(updatedMember);
+        if (!violations.isEmpty()) {
+            throw new ResponseStatusException(NOT_ACCEPTABLE, describe(violations));
+        }
+
+        for (final ProjectChange change : projectEntityRepository.touchProjectsOfMember(projectMemberID)) {
+            projectCache.evict(change.projectId());
+            eventPublisher.publishEvent(change);
+        }
+        return updatedMember;
+    }
+
+    /**
+     * Removes the member from the project and deletes it once no other project refers to it.
+     */
+    @Timed(SERVICE_TIMER)
+    @Transactional
+    @CacheEvict(cacheNames = PROJECTS, key = "#projectID")
+    public void removeProjectMember(final UUID projectID, final UUID projectMemberID) {
+        touchProject(projectID);
+
+        if (projectMemberEntityRepository.removeFromProject(projectID, projectMemberID) == 0) {
+            throw new ResponseStatusException(NOT_FOUND);
+        }
+        projectMemberEntityRepository.deleteIfUnassigned(projectMemberID);
+    }
+
+    private void touchProject(final UUID projectID) {
+        final ProjectVersion version = projectEntityRepository
+                .touchProject(projectID)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND));
+        eventPublisher.publishEvent(ProjectChange.updated(projectID, version.version()));
+    }
+
+    private static String stringValue(final Map.Entry<String, Object> field) {
+        if (Objects.nonNull(field.getValue()) && !(field.getValue() instanceof String)) {
+            throw new ResponseStatusException(NOT_ACCEPTABLE, field.getKey() + " must be a string");
+        }
+        return (String) field.getValue();
+    }
+
+    private static String describe(final Set<ConstraintViolation<ProjectMember>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(joining(", "));
+    }
+}
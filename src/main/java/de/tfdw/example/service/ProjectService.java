@@ -1,71 +1,327 @@
 package de.tfdw.example.service;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import de.tfdw.example.dto.CursorPage;
 import de.tfdw.example.dto.Project;
+import de.tfdw.example.dto.ProjectBatch;
+import de.tfdw.example.dto.ProjectChange;
+import de.tfdw.example.dto.ProjectListVersion;
 import de.tfdw.example.dto.ProjectMapper;
+import de.tfdw.example.dto.ProjectSearchHit;
+import de.tfdw.example.dto.ProjectSummary;
+import de.tfdw.example.dto.ProjectVersion;
 import de.tfdw.example.model.ProjectEntity;
 import de.tfdw.example.repository.ProjectEntityRepository;
-import org.springframework.http.HttpStatus;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.StreamSupport.stream;
+import static de.tfdw.example.configuration.CacheConfig.PROJECTS;
+import static de.tfdw.example.configuration.MetricsConfig.SERVICE_TIMER;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toMap;
+import static org.springframework.http.HttpStatus.NOT_ACCEPTABLE;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 
 @Service
 public class ProjectService {
 
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    private static final String SEARCH_CURSOR_SEPARATOR = "_";
+
     private final ProjectEntityRepository projectEntityRepository;
 
+    private final ProjectMemberService projectMemberService;
+
     private final ProjectMapper projectMapper;
 
-    public ProjectService(final ProjectEntityRepository projectEntityRepository, final ProjectMapper projectMapper) {
+    private final Validator validator;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final AsyncCache<Object, Object> projectCache;
+
+    private final Duration loadWaitTimeout;
+
+    private final Counter projectsLoaded;
+
+    private final Counter projectsCoalesced;
+
+    private final Counter projectsTimedOut;
+
+    private final Timer fetchProjectsTimer;
+
+    private final Timer mapProjectsTimer;
+
+    private final Timer fetchSummariesTimer;
+
+    private final Timer mapSummariesTimer;
+
+    public ProjectService(final ProjectEntityRepository projectEntityRepository,
+                          final ProjectMemberService projectMemberService,
+                          final ProjectMapper projectMapper,
+                          final Validator validator,
+                          final ApplicationEventPublisher eventPublisher,
+                          final PlatformTransactionManager transactionManager,
+                          final AsyncCache<Object, Object> projectCache,
+                          final MeterRegistry meterRegistry,
+                          @Value("${project.single-flight.wait-timeout:5s}") final Duration loadWaitTimeout) {
         this.projectEntityRepository = projectEntityRepository;
+        this.projectMemberService = projectMemberService;
         this.projectMapper = projectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.projectCache = projectCache;
+        this.loadWaitTimeout = loadWaitTimeout;
+        this.projectsLoaded = SingleFlight.callCounter(meterRegistry, "project", "loaded");
+        this.projectsCoalesced = SingleFlight.callCounter(meterRegistry, "project", "coalesced");
+        this.projectsTimedOut = SingleFlight.callCounter(meterRegistry, "project", "timed-out");
+        this.fetchProjectsTimer = listStageTimer(meterRegistry, "projects", "fetch");
+        this.mapProjectsTimer = listStageTimer(meterRegistry, "projects", "map");
+        this.fetchSummariesTimer = listStageTimer(meterRegistry, "summaries", "fetch");
+        this.mapSummariesTimer = listStageTimer(meterRegistry, "summaries", "map");
+    }
+
+    /**
+     * Maps the page on the calling thread. Mapping is a cheap copy per row, so handing it to another pool
+     * would cost more in scheduling than it could save.
+     */
+    @Timed(SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public CursorPage<Project> listProjects(final UUID after, final String name, final String description, final int limit) {
+        final List<ProjectEntity> rows = fetchProjectsTimer.record(() -> projectEntityRepository.findPage(after, name, description, limit + 1));
+        return mapProjectsTimer.record(() -> toPage(rows, limit, entity -> entity.getId().toString(), projectMapper::mapFromProjectEntity));
+    }
+
+    @Timed(SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public CursorPage<ProjectSummary> listProjectSummaries(final UUID after, final String name, final String description, final int limit) {
+        final List<ProjectSummary> rows = fetchSummariesTimer.record(() -> projectEntityRepository.findSummaryPage(after, name, description, limit + 1));
+        return mapSummariesTimer.record(() -> toPage(rows, limit, summary -> summary.projectId().toString(), Function.identity()));
+    }
+
+    /**
+     * Pages through the projects matching a web-search style query, best matches first. The cursor of a page
+     * combines rank and id of its last hit.
+     */
+    @Timed(SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public CursorPage<ProjectSummary> searchProjects(final String query, final String after, final int limit) {
+        if (Objects.isNull(query) || query.isBlank()) {
+            throw new ResponseStatusException(NOT_ACCEPTABLE, "Search query must not be blank");
+        }
+        Float afterRank = null;
+        UUID afterId = null;
+        if (Objects.nonNull(after)) {
+            final int separator = after.indexOf(SEARCH_CURSOR_SEPARATOR);
+            try {
+                afterRank = Float.parseFloat(after.substring(0, separator));
+                afterId = UUID.fromString(after.substring(separator + 1));
+            } catch (final IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new ResponseStatusException(NOT_ACCEPTABLE, "Invalid search cursor");
+            }
+        }
+
+        final List<ProjectSearchHit> hits = projectEntityRepository.search(query, afterRank, afterId, limit + 1);
+        return toPage(
+                hits,
+                limit,
+                hit -> hit.rank() + SEARCH_CURSOR_SEPARATOR + hit.projectId(),
+                hit -> new ProjectSummary(hit.projectId(), hit.name(), hit.description())
+        );
     }
 
-    public List<Project> listProjects() {
-        return stream(projectEntityRepository.findAll().spliterator(), true)
-                .map(projectMapper::mapFromProjectEntity)
-                .collect(toList());
+    @Timed(SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public void exportProjects(final Consumer<Project> consumer) {
+        projectEntityRepository.forEachProject(
+                EXPORT_FETCH_SIZE,
+                projectEntity -> consumer.accept(projectMapper.mapFromProjectEntity(projectEntity))
+        );
     }
 
+    /**
+     * Concurrent cache misses for the same project share one load: the first caller puts the future of its
+     * load into the cache, callers arriving meanwhile wait for that future, up to
+     * {@code project.single-flight.wait-timeout}. Only the loading caller starts a transaction, so the callers
+     * waiting for it do not hold a connection. A failed load leaves no entry behind.
+     * <p>
+     * The load reads from the primary even with read replicas: the result is cached long after the
+     * replication lag has passed, so a replica that has not replayed a change yet must not be the one
+     * filling the cache.
+     */
+    @Timed(SERVICE_TIMER)
     public Project getProject(final UUID projectID) {
-        final ProjectEntity projectEntity = projectEntityRepository
-                .findById(projectID)
-                .orElseThrow(() -> {
-                    throw new ResponseStatusException(NOT_FOUND);
-                });
+        final CompletableFuture<Object> load = new CompletableFuture<>();
+        final CompletableFuture<Object> entry = projectCache.get(projectID, (key, executor) -> load);
+        if (entry != load) {
+            if (!entry.isDone()) {
+                projectsCoalesced.increment();
+            }
+            return awaitLoad(projectID, entry);
+        }
 
-        return projectMapper.mapFromProjectEntity(projectEntity);
+        projectsLoaded.increment();
+        try {
+            final Project project = transactionTemplate.execute(status -> loadProject(projectID));
+            load.complete(project);
+            return project;
+        } catch (final RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Loads the requested projects and their members with a single query, bypassing the project cache. Each
+     * project is returned once, in the order its id was first requested.
+     */
+    @Timed(SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public ProjectBatch getProjects(final List<UUID> projectIDs) {
+        final Set<UUID> requestedIds = new LinkedHashSet<>(projectIDs);
+        final Map<UUID, ProjectEntity> entities = projectEntityRepository.findAllWithMembersById(requestedIds).stream()
+                .collect(toMap(ProjectEntity::getId, Function.identity()));
+
+        final List<Project> projects = new ArrayList<>(entities.size());
+        final List<UUID> missingProjectIds = new ArrayList<>();
+        for (final UUID projectID : requestedIds) {
+            final ProjectEntity entity = entities.get(projectID);
+            if (Objects.isNull(entity)) {
+                missingProjectIds.add(projectID);
+            } else {
+                projects.add(projectMapper.mapFromProjectEntity(entity));
+            }
+        }
+        return new ProjectBatch(projects, missingProjectIds);
+    }
+
+    /**
+     * Reads only the version and modification time of a project, which is all a conditional request needs
+     * to decide whether the client's copy is still current.
+     */
+    @Timed(SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public ProjectVersion getProjectVersion(final UUID projectID) {
+        return projectEntityRepository
+                .findVersionById(projectID)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND));
+    }
+
+    @Timed(SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public ProjectListVersion getProjectListVersion() {
+        return projectEntityRepository.findListVersion();
     }
 
+    @Timed(SERVICE_TIMER)
+    @Transactional
+    @CachePut(cacheNames = PROJECTS, key = "#result.projectId()")
     public Project createProject(final Project project) {
         final ProjectEntity entity = new ProjectEntity(
                 project.name(),
                 project.description(),
-                project.projectMembers()
+                projectMemberService.resolveProjectMembers(project.projectMembers())
         );
-        return projectMapper.mapFromProjectEntity(projectEntityRepository.save(entity));
+        final ProjectEntity savedEntity = projectEntityRepository.save(entity);
+        eventPublisher.publishEvent(ProjectChange.created(savedEntity.getId(), savedEntity.getVersion()));
+        return projectMapper.mapFromProjectEntity(savedEntity);
     }
 
-    public Project updateProject(final Project project) {
-        if (!projectEntityRepository.existsById(project.projectId())) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+    /**
+     * Updates name and description with a single {@code UPDATE ... RETURNING} statement. When an expected
+     * version is given, the update only applies if the stored version still matches it. Project members
+     * are not part of the statement, they are changed through {@link ProjectMemberService}, and members in
+     * the request are ignored. The project is read back in the same transaction, so the response and the
+     * cache hold the members as stored.
+     */
+    @Timed(SERVICE_TIMER)
+    @Transactional
+    @CachePut(cacheNames = PROJECTS, key = "#result.projectId()")
+    public Project updateProject(final Project project, final Long expectedVersion) {
+        final ProjectVersion version = projectEntityRepository
+                .updateProject(project.projectId(), expectedVersion, project.name(), project.description())
+                .orElseThrow(() -> notFoundOrPreconditionFailed(project.projectId(), expectedVersion));
+        eventPublisher.publishEvent(ProjectChange.updated(project.projectId(), version.version()));
+
+        return loadProject(project.projectId());
+    }
+
+    /**
+     * Applies a JSON Merge Patch (RFC 7396) to name and description. Only the fields present in the patch are
+     * validated and written, a field set to null is cleared. Members are changed through
+     * {@link ProjectMemberService} and cannot be patched here.
+     */
+    @Timed(SERVICE_TIMER)
+    @Transactional
+    @CachePut(cacheNames = PROJECTS, key = "#result.projectId()")
+    public Project patchProject(final UUID projectID, final Map<String, Object> patch, final Long expectedVersion) {
+        final Map<String, String> columns = new LinkedHashMap<>();
+        for (final Map.Entry<String, Object> field : patch.entrySet()) {
+            switch (field.getKey()) {
+                case "name", "description" -> columns.put(field.getKey(), validatedValue(field.getKey(), field.getValue()));
+                case "projectId" -> {
+                    if (!projectID.toString().equals(String.valueOf(field.getValue()))) {
+                        throw new ResponseStatusException(NOT_ACCEPTABLE, "ProjectIDs do not match");
+                    }
+                }
+                default -> throw new ResponseStatusException(NOT_ACCEPTABLE, field.getKey() + " cannot be patched");
+            }
         }
 
-        final ProjectEntity entity = new ProjectEntity(
-                project.projectId(),
-                project.name(),
-                project.description(),
-                project.projectMembers()
-        );
-        return projectMapper.mapFromProjectEntity(projectEntityRepository.save(entity));
+        if (!columns.isEmpty()) {
+            final ProjectVersion version = projectEntityRepository
+                    .patchProject(projectID, expectedVersion, columns)
+                    .orElseThrow(() -> notFoundOrPreconditionFailed(projectID, expectedVersion));
+            eventPublisher.publishEvent(ProjectChange.updated(projectID, version.version()));
+        }
+
+        final ProjectEntity projectEntity = projectEntityRepository
+                .findById(projectID)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND));
+        if (columns.isEmpty() && Objects.nonNull(expectedVersion) && !expectedVersion.equals(projectEntity.getVersion())) {
+            throw new ResponseStatusException(PRECONDITION_FAILED, "Project has been modified concurrently");
+        }
+        return projectMapper.mapFromProjectEntity(projectEntity);
     }
 
+    @Timed(SERVICE_TIMER)
+    @Transactional
+    @CacheEvict(PROJECTS)
     public Project deleteProject(final UUID projectID) {
         final ProjectEntity projectEntity = projectEntityRepository
                 .findById(projectID)
@@ -74,8 +330,90 @@ public class ProjectService {
                 });
 
         projectEntityRepository.delete(projectEntity);
+        eventPublisher.publishEvent(ProjectChange.deleted(projectID, projectEntity.getVersion()));
 
         return projectMapper.mapFromProjectEntity(projectEntity);
 
     }
+
+    /**
+     * Deletes a project without loading it first, for callers that do not need the deleted project back.
+     */
+    @Timed(SERVICE_TIMER)
+    @Transactional
+    @CacheEvict(PROJECTS)
+    public void deleteProjectById(final UUID projectID) {
+        if (projectEntityRepository.deleteProjects(List.of(projectID)).isEmpty()) {
+            throw new ResponseStatusException(NOT_FOUND);
+        }
+        eventPublisher.publishEvent(ProjectChange.deleted(projectID, null));
+    }
+
+    private static <T, R> CursorPage<R> toPage(final List<T> rows, final int limit, final Function<T, String> cursorOf, final Function<T, R> mapper) {
+        final boolean hasNextPage = rows.size() > limit;
+        final List<T> page = hasNextPage ? rows.subList(0, limit) : rows;
+
+        final List<R> items = page.stream()
+                .map(mapper)
+                .toList();
+        final String nextCursor = hasNextPage ? cursorOf.apply(page.get(limit - 1)) : null;
+
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    private Project awaitLoad(final UUID projectID, final CompletableFuture<Object> load) {
+        try {
+            return (Project) load.get(loadWaitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw (Error) e.getCause();
+        } catch (final TimeoutException e) {
+            projectsTimedOut.increment();
+            throw new ResponseStatusException(SERVICE_UNAVAILABLE, "Timed out waiting for the concurrent load of project " + projectID);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(SERVICE_UNAVAILABLE, "Interrupted while waiting for the concurrent load of project " + projectID);
+        }
+    }
+
+    private Project loadProject(final UUID projectID) {
+        final ProjectEntity projectEntity = projectEntityRepository
+                .findById(projectID)
+                .orElseThrow(() -> {
+                    throw new ResponseStatusException(NOT_FOUND);
+                });
+
+        return projectMapper.mapFromProjectEntity(projectEntity);
+    }
+
+    private static Timer listStageTimer(final MeterRegistry meterRegistry, final String view, final String stage) {
+        return Timer.builder("project.list.stage")
+                .description("Time spent in one stage of listing projects")
+                .tag("view", view)
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private String validatedValue(final String field, final Object value) {
+        if (Objects.nonNull(value) && !(value instanceof String)) {
+            throw new ResponseStatusException(NOT_ACCEPTABLE, field + " must be a string");
+        }
+        final Set<ConstraintViolation<Project>> violations = validator.validateValue(Project.class, field, value);
+        if (!violations.isEmpty()) {
+            throw new ResponseStatusException(NOT_ACCEPTABLE, violations.stream()
+                    .map(violation -> field + " " + violation.getMessage())
+                    .sorted()
+                    .collect(joining(", ")));
+        }
+        return (String) value;
+    }
+
+    private ResponseStatusException notFoundOrPreconditionFailed(final UUID projectID, final Long expectedVersion) {
+        if (Objects.nonNull(expectedVersion) && projectEntityRepository.existsById(projectID)) {
+            return new ResponseStatusException(PRECONDITION_FAILED, "Project has been modified concurrently");
+        }
+        return new ResponseStatusException(NOT_FOUND);
+    }
 }
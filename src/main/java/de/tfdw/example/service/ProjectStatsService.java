@@ -0,0 +1,106 @@
+package de.tfdw.example.service;
+
+import de.tfdw.example.dto.ProjectChange;
+import de.tfdw.example.dto.ProjectStats;
+import de.tfdw.example.repository.ProjectEntityRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static de.tfdw.example.configuration.MetricsConfig.SERVICE_TIMER;
+
+/**
+ * Keeps the project totals for up to the configured time-to-live, so polling them does not count the tables
+ * on every request. Concurrent requests after the totals expired share one count.
+ * <p>
+ * Created and deleted projects adjust the project count right away, including those committed while the
+ * totals are being counted. Member assignments are published as updates, which carry no member counts, so
+ * member totals and the average number of members per project are only updated when the totals are counted
+ * again.
+ */
+@Service
+public class ProjectStatsService {
+
+    private static final String STATS_KEY = "stats";
+
+    private final ProjectEntityRepository projectEntityRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final SingleFlight<String, Snapshot> statsLoads;
+
+    private final long timeToLiveNanos;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    private final AtomicLong projectCountChanges = new AtomicLong();
+
+    public ProjectStatsService(final ProjectEntityRepository projectEntityRepository,
+                               final PlatformTransactionManager transactionManager,
+                               final MeterRegistry meterRegistry,
+                               @Value("${project.stats.time-to-live:10s}") final Duration timeToLive,
+                               @Value("${project.single-flight.wait-timeout:5s}") final Duration singleFlightWaitTimeout) {
+        this.projectEntityRepository = projectEntityRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.statsLoads = new SingleFlight<>("project-stats", singleFlightWaitTimeout, meterRegistry);
+        this.timeToLiveNanos = timeToLive.toNanos();
+    }
+
+    @Timed(SERVICE_TIMER)
+    public ProjectStats getStats() {
+        final Snapshot current = snapshot.get();
+        if (Objects.nonNull(current) && System.nanoTime() - current.countedAt() < timeToLiveNanos) {
+            return current.statsAfter(projectCountChanges.get());
+        }
+        return statsLoads.load(STATS_KEY, this::countStats).statsAfter(projectCountChanges.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChange(final ProjectChange change) {
+        final long projectCountDelta = switch (change.type()) {
+            case CREATED -> 1;
+            case DELETED -> -1;
+            case UPDATED -> 0;
+        };
+        if (projectCountDelta != 0) {
+            projectCountChanges.addAndGet(projectCountDelta);
+        }
+    }
+
+    /**
+     * Remembers how many changes had been applied before counting. Changes arriving while the count runs are
+     * added on top, rather than being lost when the count replaces the previous snapshot. Only a change whose
+     * event is delivered right between its commit and the start of the count is counted twice, until the
+     * next count.
+     */
+    private Snapshot countStats() {
+        final long changesBefore = projectCountChanges.get();
+        final ProjectStats stats = transactionTemplate.execute(status -> projectEntityRepository.findStats());
+        final Snapshot counted = new Snapshot(stats, changesBefore, System.nanoTime());
+        snapshot.set(counted);
+        return counted;
+    }
+
+    private record Snapshot(ProjectStats stats, long changesBefore, long countedAt) {
+
+        private ProjectStats statsAfter(final long changes) {
+            final long delta = changes - changesBefore;
+            if (delta == 0) {
+                return stats;
+            }
+            // the membership count is as of the count, so is the average
+            return new ProjectStats(Math.max(0, stats.projectCount() + delta), stats.memberCount(), stats.membershipCount(),
+                    stats.averageMembersPerProject());
+        }
+    }
+}
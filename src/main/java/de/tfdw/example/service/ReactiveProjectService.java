@@ -0,0 +1,195 @@
+package de.tfdw.example.service;
+
+import de.tfdw.example.dto.Project;
+import de.tfdw.example.dto.ProjectChange;
+import de.tfdw.example.dto.ProjectListVersion;
+import de.tfdw.example.dto.ProjectMember;
+import de.tfdw.example.dto.ProjectVersion;
+import de.tfdw.example.repository.ReactiveProjectRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+import static org.springframework.http.HttpStatus.NOT_ACCEPTABLE;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+
+/**
+ * Non-blocking counterpart of {@link ProjectService} for the {@code reactive} profile. Changes write their
+ * outbox row in their own transaction like the blocking services do, and are handed to the
+ * {@link ProjectChangeLog} once committed. Projects are not cached.
+ */
+@Service
+@ConditionalOnWebApplication(type = REACTIVE)
+public class ReactiveProjectService {
+
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    private final ReactiveProjectRepository reactiveProjectRepository;
+
+    private final TransactionalOperator transactionalOperator;
+
+    private final ProjectChangeLog projectChangeLog;
+
+    public ReactiveProjectService(final ReactiveProjectRepository reactiveProjectRepository,
+                                  final TransactionalOperator transactionalOperator,
+                                  final ProjectChangeLog projectChangeLog) {
+        this.reactiveProjectRepository = reactiveProjectRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.projectChangeLog = projectChangeLog;
+    }
+
+    public Flux<Project> listProjects(final UUID after, final String name, final String description, final int limit) {
+        return reactiveProjectRepository.findPage(after, name, description, limit);
+    }
+
+    public Flux<Project> exportProjects() {
+        return reactiveProjectRepository.findAll(EXPORT_FETCH_SIZE);
+    }
+
+    public Mono<Project> getProject(final UUID projectID) {
+        return reactiveProjectRepository.findById(projectID)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(NOT_FOUND)));
+    }
+
+    public Mono<ProjectVersion> getProjectVersion(final UUID projectID) {
+        return reactiveProjectRepository.findVersionById(projectID)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(NOT_FOUND)));
+    }
+
+    public Mono<ProjectListVersion> getProjectListVersion() {
+        return reactiveProjectRepository.findListVersion();
+    }
+
+    /**
+     * Members without an id are created, members with an id refer to existing members whose details stay
+     * as they are, like in {@link ProjectMemberService#resolveProjectMembers}.
+     */
+    public Mono<Project> createProject(final Project project) {
+        final UUID projectID = UUID.randomUUID();
+        final List<ProjectMember> requestedMembers = Objects.requireNonNullElse(project.projectMembers(), List.of());
+        final List<UUID> referencedIds = requestedMembers.stream()
+                .map(ProjectMember::projectMemberId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        return reactiveProjectRepository.findMembersById(referencedIds)
+                .collect(toMap(ProjectMember::projectMemberId, identity()))
+                .flatMap(existingMembers -> {
+                    final Map<UUID, ProjectMember> members = new LinkedHashMap<>();
+                    final List<ProjectMember> newMembers = new ArrayList<>();
+                    for (final ProjectMember requestedMember : requestedMembers) {
+                        if (Objects.isNull(requestedMember.projectMemberId())) {
+                            final ProjectMember newMember = withId(requestedMember, UUID.randomUUID());
+                            newMembers.add(newMember);
+                            members.put(newMember.projectMemberId(), newMember);
+                            continue;
+                        }
+                        final ProjectMember existingMember = existingMembers.get(requestedMember.projectMemberId());
+                        if (Objects.isNull(existingMember)) {
+                            return Mono.error(new ResponseStatusException(NOT_ACCEPTABLE, "Unknown project member " + requestedMember.projectMemberId()));
+                        }
+                        members.putIfAbsent(existingMember.projectMemberId(), existingMember);
+                    }
+
+                    return reactiveProjectRepository.insertProject(projectID, project.name(), project.description(), Instant.now())
+                            .flatMap(version -> reactiveProjectRepository.insertMembers(newMembers)
+                                    .then(reactiveProjectRepository.addMembersToProject(projectID, members.keySet()))
+                                    .then(reactiveProjectRepository.appendToOutbox(ProjectChange.created(projectID, version.version())))
+                                    .thenReturn(new Project(
+                                            projectID,
+                                            project.name(),
+                                            project.description(),
+                                            List.copyOf(members.values()),
+                                            version.version(),
+                                            version.updatedAt()
+                                    )));
+                })
+                .as(transactionalOperator::transactional)
+                .flatMap(created -> logChange(ProjectChange.created(projectID, created.version())).thenReturn(created));
+    }
+
+    /**
+     * Updates name and description like {@link ProjectService#updateProject}, members are left as they are
+     * and the project is read back with its stored members in the same transaction.
+     */
+    public Mono<Project> updateProject(final Project project, final Long expectedVersion) {
+        return reactiveProjectRepository
+                .updateProject(project.projectId(), expectedVersion, project.name(), project.description(), Instant.now())
+                .switchIfEmpty(Mono.defer(() -> notFoundOrPreconditionFailed(project.projectId(), expectedVersion)))
+                .flatMap(version -> reactiveProjectRepository
+                        .appendToOutbox(ProjectChange.updated(project.projectId(), version.version()))
+                        .then(reactiveProjectRepository.findById(project.projectId())))
+                .as(transactionalOperator::transactional)
+                .flatMap(updated -> logChange(ProjectChange.updated(updated.projectId(), updated.version())).thenReturn(updated));
+    }
+
+    public Mono<Project> deleteProject(final UUID projectID) {
+        return reactiveProjectRepository.findById(projectID)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(NOT_FOUND)))
+                .flatMap(project -> delete(projectID).thenReturn(project))
+                .as(transactionalOperator::transactional)
+                .flatMap(project -> logChange(ProjectChange.deleted(projectID, project.version())).thenReturn(project));
+    }
+
+    /**
+     * Deletes a project without loading it first, for callers that do not need the deleted project back.
+     */
+    public Mono<Void> deleteProjectById(final UUID projectID) {
+        return delete(projectID)
+                .as(transactionalOperator::transactional)
+                .flatMap(version -> logChange(ProjectChange.deleted(projectID, version)));
+    }
+
+    private Mono<Long> delete(final UUID projectID) {
+        return reactiveProjectRepository.deleteById(projectID)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(NOT_FOUND)))
+                .flatMap(version -> reactiveProjectRepository
+                        .appendToOutbox(ProjectChange.deleted(projectID, version))
+                        .thenReturn(version));
+    }
+
+    /**
+     * Handing a change to the log never waits, so it can run on the event loop.
+     */
+    private Mono<Void> logChange(final ProjectChange change) {
+        return Mono.fromRunnable(() -> projectChangeLog.onProjectChange(change));
+    }
+
+    private <T> Mono<T> notFoundOrPreconditionFailed(final UUID projectID, final Long expectedVersion) {
+        if (Objects.isNull(expectedVersion)) {
+            return Mono.error(new ResponseStatusException(NOT_FOUND));
+        }
+        return reactiveProjectRepository.existsById(projectID)
+                .flatMap(exists -> Mono.error(exists
+                        ? new ResponseStatusException(PRECONDITION_FAILED, "Project has been modified concurrently")
+                        : new ResponseStatusException(NOT_FOUND)));
+    }
+
+    private static ProjectMember withId(final ProjectMember projectMember, final UUID projectMemberId) {
+        return new ProjectMember(
+                projectMemberId,
+                projectMember.firstName(),
+                projectMember.lastName(),
+                projectMember.email(),
+                projectMember.pronouns(),
+                projectMember.description(),
+                projectMember.imageReference()
+        );
+    }
+}
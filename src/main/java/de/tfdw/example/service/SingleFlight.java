@@ -0,0 +1,92 @@
+package de.tfdw.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+/**
+ * Lets concurrent callers asking for the same key share one load. The first caller runs the loader, callers
+ * arriving while it runs wait for its result or exception, up to the wait timeout. Nothing is kept once a
+ * load has completed, caching the result is up to the caller.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Duration waitTimeout;
+
+    private final Counter loaded;
+
+    private final Counter coalesced;
+
+    private final Counter timedOut;
+
+    public SingleFlight(final String name, final Duration waitTimeout, final MeterRegistry meterRegistry) {
+        this.waitTimeout = waitTimeout;
+        this.loaded = callCounter(meterRegistry, name, "loaded");
+        this.coalesced = callCounter(meterRegistry, name, "coalesced");
+        this.timedOut = callCounter(meterRegistry, name, "timed-out");
+        meterRegistry.gaugeMapSize("project.single-flight.in-flight", Tags.of("name", name), inFlight);
+    }
+
+    public V load(final K key, final Supplier<V> loader) {
+        final CompletableFuture<V> flight = new CompletableFuture<>();
+        final CompletableFuture<V> runningFlight = inFlight.putIfAbsent(key, flight);
+        if (Objects.nonNull(runningFlight)) {
+            return await(key, runningFlight);
+        }
+
+        loaded.increment();
+        try {
+            final V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (final RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V await(final K key, final CompletableFuture<V> flight) {
+        try {
+            final V value = flight.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            coalesced.increment();
+            return value;
+        } catch (final ExecutionException e) {
+            coalesced.increment();
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw (Error) e.getCause();
+        } catch (final TimeoutException e) {
+            timedOut.increment();
+            throw new ResponseStatusException(SERVICE_UNAVAILABLE, "Timed out waiting for the concurrent load of " + key);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(SERVICE_UNAVAILABLE, "Interrupted while waiting for the concurrent load of " + key);
+        }
+    }
+
+    static Counter callCounter(final MeterRegistry meterRegistry, final String name, final String outcome) {
+        return Counter.builder("project.single-flight.calls")
+                .description("Calls by whether they loaded, shared a concurrent load or gave up waiting for it")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
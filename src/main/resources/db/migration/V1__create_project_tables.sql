@@ -0,0 +1,33 @@
+CREATE TABLE project
+(
+    id          uuid         NOT NULL,
+    name        varchar(256),
+    description varchar(256),
+    version     bigint       NOT NULL DEFAULT 0,
+    updated_at  timestamptz,
+    CONSTRAINT project_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE project_member
+(
+    id uuid NOT NULL,
+    CONSTRAINT project_member_pkey PRIMARY KEY (id)
+);
+
+-- The primary key also serves lookups of the members of a project; the second index serves the
+-- cascade when a member is deleted.
+CREATE TABLE project_project_members
+(
+    project_id        uuid NOT NULL,
+    project_member_id uuid NOT NULL,
+    CONSTRAINT project_project_members_pkey PRIMARY KEY (project_id, project_member_id),
+    CONSTRAINT project_project_members_project_fkey
+        FOREIGN KEY (project_id) REFERENCES project (id) ON DELETE CASCADE,
+    CONSTRAINT project_project_members_project_member_fkey
+        FOREIGN KEY (project_member_id) REFERENCES project_member (id) ON DELETE CASCADE
+);
+
+CREATE INDEX project_project_members_project_member_id_idx ON project_project_members (project_member_id);
+
+-- Serves the list version (max(updated_at)) used for conditional list requests.
+CREATE INDEX project_updated_at_idx ON project (updated_at);
@@ -0,0 +1,9 @@
+-- Full-text search over project name and description, see ProjectEntityRepositoryCustomImpl#search.
+ALTER TABLE project
+    ADD COLUMN search_vector tsvector
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+            setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+        ) STORED;
+
+CREATE INDEX project_search_vector_idx ON project USING gin (search_vector);
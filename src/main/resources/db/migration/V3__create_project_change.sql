@@ -0,0 +1,14 @@
+-- Append-only history of project mutations, written in batches by ProjectChangeLog. There is no foreign
+-- key to project, so the history of deleted projects is kept.
+CREATE TABLE project_change
+(
+    id          bigint GENERATED ALWAYS AS IDENTITY,
+    project_id  uuid        NOT NULL,
+    change_type varchar(16) NOT NULL,
+    version     bigint,
+    occurred_at timestamptz NOT NULL,
+    recorded_at timestamptz NOT NULL DEFAULT now(),
+    CONSTRAINT project_change_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX project_change_project_id_idx ON project_change (project_id, id);
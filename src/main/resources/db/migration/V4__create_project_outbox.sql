@@ -0,0 +1,13 @@
+-- Outbox of project mutations, written in the transaction of the mutation itself and read by the change
+-- feed. transaction_id lets readers skip rows of transactions that may still commit below the last
+-- sequence they have seen.
+CREATE TABLE project_outbox
+(
+    sequence       bigint GENERATED ALWAYS AS IDENTITY,
+    project_id     uuid        NOT NULL,
+    change_type    varchar(16) NOT NULL,
+    version        bigint,
+    occurred_at    timestamptz NOT NULL,
+    transaction_id xid8        NOT NULL DEFAULT pg_current_xact_id(),
+    CONSTRAINT project_outbox_pkey PRIMARY KEY (sequence)
+);
@@ -0,0 +1,8 @@
+-- Members were stored as bare ids so far; their details now live in project_member as well.
+ALTER TABLE project_member
+    ADD COLUMN first_name      varchar(255),
+    ADD COLUMN last_name       varchar(255),
+    ADD COLUMN email           varchar(255),
+    ADD COLUMN pronouns        varchar(16),
+    ADD COLUMN description     varchar(255),
+    ADD COLUMN image_reference varchar(255);
@@ -0,0 +1,3 @@
+-- The change feed pages by (transaction_id, sequence): every transaction below the snapshot xmin has
+-- finished, so a transaction that commits later always sorts after the rows already read.
+CREATE INDEX project_outbox_transaction_sequence_idx ON project_outbox (transaction_id, sequence);
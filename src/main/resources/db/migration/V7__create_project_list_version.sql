@@ -0,0 +1,39 @@
+-- Version of the project list for conditional list requests. Every statement writing projects or their
+-- member assignments bumps it in its own transaction, so the new version commits together with the change
+-- and does not depend on the clocks of the application instances. Concurrent writers queue on this row
+-- until they commit.
+CREATE TABLE project_list_version
+(
+    id         boolean     NOT NULL DEFAULT true,
+    version    bigint      NOT NULL,
+    updated_at timestamptz NOT NULL,
+    CONSTRAINT project_list_version_pkey PRIMARY KEY (id),
+    CONSTRAINT project_list_version_single_row CHECK (id)
+);
+
+INSERT INTO project_list_version (version, updated_at)
+VALUES (0, now());
+
+CREATE FUNCTION bump_project_list_version() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    UPDATE project_list_version SET version = version + 1, updated_at = greatest(updated_at, now());
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER project_bumps_list_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE
+    ON project
+    FOR EACH STATEMENT
+EXECUTE FUNCTION bump_project_list_version();
+
+CREATE TRIGGER project_project_members_bump_list_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE
+    ON project_project_members
+    FOR EACH STATEMENT
+EXECUTE FUNCTION bump_project_list_version();
+
+-- Only served the previous list version, max(updated_at).
+DROP INDEX project_updated_at_idx;
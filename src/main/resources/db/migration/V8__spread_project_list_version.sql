@@ -0,0 +1,42 @@
+-- Spreads the list version of V7 over a fixed set of slots. A writer bumps the first slot no other
+-- transaction has locked, so concurrent writers, including bulk chunks holding their slot until they commit,
+-- no longer wait for each other. The list version is the sum of all slots: every commit that changed projects
+-- or member assignments raises it, whichever slot it used.
+--
+-- updated_at is the transaction time of the writer, so a writer committing after a later-started one can
+-- leave the latest modification time unchanged. The version, which conditional list requests compare as
+-- entity tag, still changes.
+CREATE TABLE project_list_version_slot
+(
+    slot       smallint    NOT NULL,
+    version    bigint      NOT NULL,
+    updated_at timestamptz NOT NULL,
+    CONSTRAINT project_list_version_slot_pkey PRIMARY KEY (slot)
+);
+
+INSERT INTO project_list_version_slot (slot, version, updated_at)
+SELECT slot, CASE WHEN slot = 0 THEN v.version ELSE 0 END, v.updated_at
+FROM generate_series(0, 31) AS slot,
+     project_list_version v;
+
+CREATE OR REPLACE FUNCTION bump_project_list_version() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    free_slot smallint;
+BEGIN
+    -- rows locked by this transaction itself are not skipped, so its later statements can reuse its slot
+    SELECT slot INTO free_slot FROM project_list_version_slot ORDER BY slot LIMIT 1 FOR UPDATE SKIP LOCKED;
+    IF free_slot IS NULL THEN
+        -- more concurrent writers than slots, wait for any one of them
+        free_slot := floor(random() * 32);
+    END IF;
+    UPDATE project_list_version_slot
+    SET version    = version + 1,
+        updated_at = greatest(updated_at, now())
+    WHERE slot = free_slot;
+    RETURN NULL;
+END;
+$$;
+
+DROP TABLE project_list_version;
@@ -1,6 +1,7 @@
-INSERT INTO public.project (id, description, name) VALUES ('317c2e2e-17ed-4731-8918-e5ae119f102f', 'I''m baby big mood cronut fanny pack, af JOMO yr meditation activated charcoal seitan adaptogen normcore hoodie viral man braid drinking vinegar. Ascot biodiesel roof party, leggings DIY messenger bag locavore deep v. IPhone chambray pop-up pok pok etsy sq', 'Hipster Project #1');
-INSERT INTO public.project (id, description, name) VALUES ('eb0c88fb-2e8c-462c-951c-4e817697df86', 'Apple pie candy canes bonbon halvah toffee dessert. Macaroon brownie powder cookie icing macaroon. Topping chocolate bar gingerbread jelly beans jelly cookie candy canes. Dessert gummies lollipop jelly icing. Pastry chocolate bar toffee cake chupa chups m', 'Cupcake Project');
-INSERT INTO public.project (id, description, name) VALUES ('112c5212-ec75-4124-8f46-1dfa1b62c11c', 'Chia mlkshk echo park waistcoat. Raclette pop-up celiac venmo sustainable leggings vaporware locavore. Typewriter mumblecore everyday carry tonx bicycle rights ugh vexillologist shaman XOXO before they sold out woke vinyl PBR&B deep v. Authentic dreamcatc', 'Hipster Project #2');
-INSERT INTO public.project (id, description, name) VALUES ('1f48bed9-c987-4879-b824-661f004dd479', 'You think water moves fast? You should see ice. It moves like it has a mind. Like it knows it killed the world once and got a taste for murder. After the avalanche, it took us a week to climb out. Now, I don''t know exactly when we turned on each other, bu', 'Samuel Project');
-INSERT INTO public.project (id, description, name) VALUES ('a7c3e508-fe01-401d-b92e-e1e9d0e0722d', 'Lorem Impsum', 'Lorem Project');
-INSERT INTO public.project (id, description, name) VALUES ('d7557aa3-f7d0-46b8-8f94-64d88db4fba0', 'Zombie ipsum reversus ab viral inferno, nam rick grimes malum cerebro. De carne lumbering animata corpora quaeritis. Summus brains sit​​, morbo vel maleficia? De apocalypsi gorger omero undead survivor dictum mauris. Hi mindless mortuis soulless creaturas', 'Zombie Project');
+-- Demo data for local development, only applied with the dev profile.
+INSERT INTO public.project (id, description, name) VALUES ('317c2e2e-17ed-4731-8918-e5ae119f102f', 'I''m baby big mood cronut fanny pack, af JOMO yr meditation activated charcoal seitan adaptogen normcore hoodie viral man braid drinking vinegar. Ascot biodiesel roof party, leggings DIY messenger bag locavore deep v. IPhone chambray pop-up pok pok etsy sq', 'Hipster Project #1') ON CONFLICT (id) DO NOTHING;
+INSERT INTO public.project (id, description, name) VALUES ('eb0c88fb-2e8c-462c-951c-4e817697df86', 'Apple pie candy canes bonbon halvah toffee dessert. Macaroon brownie powder cookie icing macaroon. Topping chocolate bar gingerbread jelly beans jelly cookie candy canes. Dessert gummies lollipop jelly icing. Pastry chocolate bar toffee cake chupa chups m', 'Cupcake Project') ON CONFLICT (id) DO NOTHING;
+INSERT INTO public.project (id, description, name) VALUES ('112c5212-ec75-4124-8f46-1dfa1b62c11c', 'Chia mlkshk echo park waistcoat. Raclette pop-up celiac venmo sustainable leggings vaporware locavore. Typewriter mumblecore everyday carry tonx bicycle rights ugh vexillologist shaman XOXO before they sold out woke vinyl PBR&B deep v. Authentic dreamcatc', 'Hipster Project #2') ON CONFLICT (id) DO NOTHING;
+INSERT INTO public.project (id, description, name) VALUES ('1f48bed9-c987-4879-b824-661f004dd479', 'You think water moves fast? You should see ice. It moves like it has a mind. Like it knows it killed the world once and got a taste for murder. After the avalanche, it took us a week to climb out. Now, I don''t know exactly when we turned on each other, bu', 'Samuel Project') ON CONFLICT (id) DO NOTHING;
+INSERT INTO public.project (id, description, name) VALUES ('a7c3e508-fe01-401d-b92e-e1e9d0e0722d', 'Lorem Impsum', 'Lorem Project') ON CONFLICT (id) DO NOTHING;
+INSERT INTO public.project (id, description, name) VALUES ('d7557aa3-f7d0-46b8-8f94-64d88db4fba0', 'Zombie ipsum reversus ab viral inferno, nam rick grimes malum cerebro. De carne lumbering animata corpora quaeritis. Summus brains sit​​, morbo vel maleficia? De apocalypsi gorger omero undead survivor dictum mauris. Hi mindless mortuis soulless creaturas', 'Zombie Project') ON CONFLICT (id) DO NOTHING;
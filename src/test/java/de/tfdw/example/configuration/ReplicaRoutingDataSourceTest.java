@@ -0,0 +1,132 @@
+package de.tfdw.example.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+class ReplicaRoutingDataSourceTest {
+
+    private AutoCloseable autoCloseable;
+    @Mock
+    private DataSource mockedPrimary;
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private DataSource mockedReplica;
+
+    private final Connection primaryConnection = mock(Connection.class);
+
+    private final Connection replicaConnection = mock(Connection.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        autoCloseable = openMocks(this);
+        when(mockedPrimary.getConnection()).thenReturn(primaryConnection);
+        replicaRoutingDataSource = new ReplicaRoutingDataSource(mockedPrimary, List.of(mockedReplica),
+                Duration.ofSeconds(5), Duration.ofSeconds(5), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaRoutingDataSource.setPrimaryRequired(false);
+        autoCloseable.close();
+    }
+
+    @Test
+    void shouldReadFromHealthyReplica() throws SQLException {
+        // given
+        replicaWithLag(0.5);
+        replicaRoutingDataSource.checkReplicas();
+        when(mockedReplica.getConnection()).thenReturn(replicaConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // when
+        final Connection connection = replicaRoutingDataSource.getConnection();
+
+        // then
+        assertSame(replicaConnection, connection);
+        assertEquals(1.0, meterRegistry.get("project.datasource.replicas.healthy").gauge().value());
+    }
+
+    @Test
+    void shouldWriteToPrimary() throws SQLException {
+        // given
+        replicaWithLag(0);
+        replicaRoutingDataSource.checkReplicas();
+
+        // when
+        final Connection connection = replicaRoutingDataSource.getConnection();
+
+        // then
+        assertSame(primaryConnection, connection);
+    }
+
+    @Test
+    void shouldReadFromPrimaryWhenPrimaryIsRequired() throws SQLException {
+        // given
+        replicaWithLag(0);
+        replicaRoutingDataSource.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaRoutingDataSource.setPrimaryRequired(true);
+
+        // when
+        final Connection connection = replicaRoutingDataSource.getConnection();
+
+        // then
+        assertSame(primaryConnection, connection);
+    }
+
+    @Test
+    void shouldFallBackToPrimaryIfReplicaFails() throws SQLException {
+        // given
+        replicaWithLag(0);
+        replicaRoutingDataSource.checkReplicas();
+        when(mockedReplica.getConnection()).thenThrow(new SQLException("connection refused"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // when
+        final Connection connection = replicaRoutingDataSource.getConnection();
+
+        // then
+        assertSame(primaryConnection, connection);
+        assertEquals(0.0, meterRegistry.get("project.datasource.replicas.healthy").gauge().value());
+    }
+
+    @Test
+    void shouldReadFromPrimaryIfReplicaLagsBehind() throws SQLException {
+        // given
+        replicaWithLag(10);
+        replicaRoutingDataSource.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // when
+        final Connection connection = replicaRoutingDataSource.getConnection();
+
+        // then
+        assertSame(primaryConnection, connection);
+    }
+
+    private void replicaWithLag(final double lagSeconds) throws SQLException {
+        when(mockedReplica.getConnection().createStatement().executeQuery(anyString()).getDouble(1)).thenReturn(lagSeconds);
+    }
+}
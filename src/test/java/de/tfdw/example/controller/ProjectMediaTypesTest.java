@@ -0,0 +1,46 @@
+package de.tfdw.example.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProjectMediaTypesTest {
+
+    @Test
+    void shouldNegotiateTheAcceptedContentType() {
+        assertEquals(MediaType.APPLICATION_JSON, negotiate(""));
+        assertEquals(MediaType.APPLICATION_JSON, negotiate("*/*"));
+        assertEquals(MediaType.APPLICATION_CBOR, negotiate("application/cbor"));
+        assertEquals(ProjectMediaTypes.APPLICATION_SMILE, negotiate("application/x-jackson-smile"));
+    }
+
+    @Test
+    void shouldPreferTheContentTypeOfHighestQuality() {
+        assertEquals(MediaType.APPLICATION_JSON, negotiate("application/cbor;q=0.1, application/json"));
+        assertEquals(MediaType.APPLICATION_CBOR, negotiate("application/json;q=0.5, application/cbor"));
+        assertEquals(MediaType.APPLICATION_CBOR, negotiate("*/*;q=0.5, application/cbor"));
+        assertEquals(ProjectMediaTypes.APPLICATION_SMILE, negotiate("application/cbor;q=0, application/x-jackson-smile;q=0.1"));
+    }
+
+    @Test
+    void shouldTagEachContentTypeSeparately() {
+        assertEquals("\"3-json\"", ETags.of(3L, MediaType.APPLICATION_JSON));
+        assertEquals("\"3-cbor\"", ETags.of(3L, MediaType.APPLICATION_CBOR));
+        assertEquals("\"3-smile\"", ETags.of(3L, ProjectMediaTypes.APPLICATION_SMILE));
+    }
+
+    @Test
+    void shouldReadTheVersionOfEveryContentType() {
+        assertEquals(3L, ETags.versionOf("\"3\""));
+        assertEquals(3L, ETags.versionOf("\"3-json\""));
+        assertEquals(3L, ETags.versionOf("\"3-cbor\""));
+    }
+
+    private static MediaType negotiate(final String accept) {
+        final List<MediaType> acceptedTypes = MediaType.parseMediaTypes(accept);
+        return ProjectMediaTypes.negotiate(acceptedTypes);
+    }
+}
@@ -0,0 +1,87 @@
+package de.tfdw.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.tfdw.example.dto.Project;
+import de.tfdw.example.dto.ProjectChange;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.UUID;
+
+import static de.tfdw.example.configuration.CacheConfig.PROJECT_RESPONSES;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ProjectResponseCacheTest {
+
+    private static final UUID PROJECT_ID = UUID.fromString("093e047e-b4ab-4053-87db-46c795426191");
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final ProjectResponseCache projectResponseCache = new ProjectResponseCache(true,
+            new ConcurrentMapCacheManager(PROJECT_RESPONSES), objectMapper);
+
+    @Test
+    void shouldReuseTheBodyOfTheSameProject() throws Exception {
+        // given
+        final Project project = project(1L);
+
+        // when
+        final byte[] firstBody = projectResponseCache.serialize(project, MediaType.APPLICATION_JSON);
+        final byte[] secondBody = projectResponseCache.serialize(project, MediaType.APPLICATION_JSON);
+
+        // then
+        assertSame(firstBody, secondBody);
+        assertEquals(project, objectMapper.readValue(firstBody, Project.class));
+    }
+
+    @Test
+    void shouldSerializeAgainForAnotherInstanceOfTheProject() {
+        // given
+        final byte[] firstBody = projectResponseCache.serialize(project(1L), MediaType.APPLICATION_JSON);
+
+        // when
+        final byte[] secondBody = projectResponseCache.serialize(project(1L), MediaType.APPLICATION_JSON);
+
+        // then
+        assertNotSame(firstBody, secondBody);
+        assertArrayEquals(firstBody, secondBody);
+    }
+
+    @Test
+    void shouldSerializeAgainAfterTheProjectChanged() {
+        // given
+        final Project project = project(1L);
+        final byte[] firstBody = projectResponseCache.serialize(project, MediaType.APPLICATION_JSON);
+
+        // when
+        projectResponseCache.onProjectChange(ProjectChange.updated(PROJECT_ID, 2L));
+        final byte[] secondBody = projectResponseCache.serialize(project, MediaType.APPLICATION_JSON);
+
+        // then
+        assertNotSame(firstBody, secondBody);
+    }
+
+    @Test
+    void shouldKeepABodyPerContentType() {
+        // given
+        final Project project = project(1L);
+
+        // when
+        final byte[] jsonBody = projectResponseCache.serialize(project, MediaType.APPLICATION_JSON);
+        final byte[] cborBody = projectResponseCache.serialize(project, MediaType.APPLICATION_CBOR);
+
+        // then
+        assertNotSame(jsonBody, cborBody);
+        assertSame(cborBody, projectResponseCache.serialize(project, MediaType.APPLICATION_CBOR));
+    }
+
+    private static Project project(final Long version) {
+        return new Project(PROJECT_ID, "Test Name", "Test Description", emptyList(), version, null);
+    }
+}
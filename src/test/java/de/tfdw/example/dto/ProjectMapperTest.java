@@ -1,14 +1,18 @@
 package de.tfdw.example.dto;
 
 import de.tfdw.example.model.ProjectEntity;
+import de.tfdw.example.model.ProjectMemberEntity;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ProjectMapperTest {
 
@@ -33,7 +37,9 @@ class ProjectMapperTest {
                 projectId,
                 "Test Project",
                 "Test Description",
-                Collections.emptyList()
+                Collections.emptyList(),
+                null,
+                null
         );
 
         // when
@@ -55,7 +61,9 @@ class ProjectMapperTest {
                 null,
                 "Test Project",
                 "Test Description",
-                Collections.emptyList()
+                Collections.emptyList(),
+                null,
+                null
         );
 
         // when
@@ -65,6 +73,62 @@ class ProjectMapperTest {
         assertEquals(expectedProject, actualProject);
     }
 
+    @Test
+    void shouldMapProjectMembers() {
+        // given
+        final ProjectMemberEntity projectMemberEntity = new ProjectMemberEntity(
+                "Test First Name",
+                "Test Last Name",
+                "test@example.com",
+                "they/their",
+                "Test Member Description",
+                "images/test.png"
+        );
+        final ProjectEntity projectEntity = new ProjectEntity(
+                "Test Project",
+                "Test Description",
+                List.of(projectMemberEntity)
+        );
+        final ProjectMember expectedProjectMember = new ProjectMember(
+                projectMemberEntity.getId(),
+                "Test First Name",
+                "Test Last Name",
+                "test@example.com",
+                "they/their",
+                "Test Member Description",
+                "images/test.png"
+        );
+
+        // when
+        final Project actualProject = projectMapper.mapFromProjectEntity(projectEntity);
+
+        // then
+        assertEquals(List.of(expectedProjectMember), actualProject.projectMembers());
+    }
+
+    @Test
+    void shouldCreateNewProjectMemberEntity() {
+        // given
+        final ProjectMember projectMember = new ProjectMember(
+                UUID.randomUUID(),
+                "Test First Name",
+                "Test Last Name",
+                "test@example.com",
+                "they/their",
+                "Test Member Description",
+                "images/test.png"
+        );
+
+        // when
+        final ProjectMemberEntity actualEntity = projectMapper.mapToProjectMemberEntity(projectMember);
+
+        // then
+        assertNotEquals(projectMember.projectMemberId(), actualEntity.getId());
+        assertTrue(actualEntity.isNew());
+        assertEquals("Test First Name", actualEntity.getFirstName());
+        assertEquals("images/test.png", actualEntity.getImageReference());
+    }
+
     @Test
     void shouldThrowExceptionIfProjectEntityIsNull() {
         // given / when / then
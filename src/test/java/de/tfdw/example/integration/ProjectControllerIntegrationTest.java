@@ -1,7 +1,17 @@
 package de.tfdw.example.integration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import de.tfdw.example.dto.BulkItemResult;
 import de.tfdw.example.dto.Project;
+import de.tfdw.example.dto.ProjectBatch;
+import de.tfdw.example.dto.ProjectChange;
+import de.tfdw.example.dto.ProjectChangeBatch;
+import de.tfdw.example.dto.ProjectChangeEntry;
 import de.tfdw.example.dto.ProjectMapper;
+import de.tfdw.example.dto.ProjectMember;
+import de.tfdw.example.dto.ProjectStats;
+import de.tfdw.example.dto.ProjectSummary;
 import de.tfdw.example.model.ProjectEntity;
 import de.tfdw.example.repository.ProjectEntityRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +19,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.RequestEntity;
@@ -20,14 +31,31 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import javax.sql.DataSource;
+import java.io.IOException;
 import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.Collections.emptyList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.MediaType.APPLICATION_CBOR;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
@@ -54,11 +82,17 @@ public class ProjectControllerIntegrationTest {
         registry.add("spring.datasource.url", postgresqlContainer::getJdbcUrl);
         registry.add("spring.datasource.username", postgresqlContainer::getUsername);
         registry.add("spring.datasource.password", postgresqlContainer::getPassword);
+        registry.add("project.changes.feed.poll-timeout", () -> "1s");
+        registry.add("project.stats.time-to-live", () -> "0s");
+        registry.add("project.response-cache.enabled", () -> "true");
     }
 
     @Autowired
     private ProjectEntityRepository projectEntityRepository;
 
+    @Autowired
+    private DataSource dataSource;
+
     @BeforeEach
     void setUp() {
         projectEntityRepository.deleteAll();
@@ -106,6 +140,102 @@ public class ProjectControllerIntegrationTest {
         assertEquals(1, responseEntity.getBody().length);
     }
 
+    @Test
+    void returnPagesOfProjects() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            projectEntityRepository.save(new ProjectEntity(null, "Test Project " + i, "Test Description", emptyList()));
+        }
+
+        // when
+        final ResponseEntity<Project[]> firstPage = testRestTemplate.getForEntity("/project?limit=2", Project[].class);
+        final String nextPageLink = firstPage.getHeaders().getFirst(HttpHeaders.LINK);
+        assertNotNull(nextPageLink);
+        final String nextPage = nextPageLink.substring(nextPageLink.indexOf("/project"), nextPageLink.indexOf('>'));
+        final ResponseEntity<Project[]> secondPage = testRestTemplate.getForEntity(URI.create(nextPage), Project[].class);
+
+        // then
+        assertEquals(HttpStatus.OK, firstPage.getStatusCode());
+        assertNotNull(firstPage.getBody());
+        assertEquals(2, firstPage.getBody().length);
+        assertEquals(HttpStatus.OK, secondPage.getStatusCode());
+        assertNotNull(secondPage.getBody());
+        assertEquals(1, secondPage.getBody().length);
+        assertNull(secondPage.getHeaders().getFirst(HttpHeaders.LINK));
+        assertNotEquals(firstPage.getBody()[1].projectId(), secondPage.getBody()[0].projectId());
+    }
+
+    @Test
+    void returnProjectsMatchingFilter() {
+        // given
+        projectEntityRepository.save(new ProjectEntity(null, "Cupcake Project", "Test Description", emptyList()));
+        projectEntityRepository.save(new ProjectEntity(null, "Zombie Project", "Test Description", emptyList()));
+
+        // when
+        final ResponseEntity<Project[]> responseEntity = testRestTemplate.getForEntity("/project?name=cupcake", Project[].class);
+
+        // then
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertNotNull(responseEntity.getBody());
+        assertEquals(1, responseEntity.getBody().length);
+        assertEquals("Cupcake Project", responseEntity.getBody()[0].name());
+    }
+
+    @Test
+    void returnListOfProjectsFailsWhenLimitIsTooLarge() {
+        // given
+
+        // when
+        final ResponseEntity<String> responseEntity = testRestTemplate.getForEntity("/project?limit=1001", String.class);
+
+        // then
+        assertEquals(HttpStatus.NOT_ACCEPTABLE, responseEntity.getStatusCode());
+    }
+
+    @Test
+    void searchProjectsByRank() {
+        // given
+        final ProjectEntity nameMatch = projectEntityRepository.save(new ProjectEntity(null, "Cupcake Project", "Apple pie candy canes", emptyList()));
+        final ProjectEntity descriptionMatch = projectEntityRepository.save(new ProjectEntity(null, "Dessert Project", "Cupcake toffee and more", emptyList()));
+        projectEntityRepository.save(new ProjectEntity(null, "Zombie Project", "Zombie ipsum reversus", emptyList()));
+
+        // when
+        final ResponseEntity<ProjectSummary[]> firstPage = testRestTemplate.getForEntity("/project/search?q=cupcake&limit=1", ProjectSummary[].class);
+        final String nextPageLink = firstPage.getHeaders().getFirst(HttpHeaders.LINK);
+        assertNotNull(nextPageLink);
+        final String nextPage = nextPageLink.substring(nextPageLink.indexOf("/project"), nextPageLink.indexOf('>'));
+        final ResponseEntity<ProjectSummary[]> secondPage = testRestTemplate.getForEntity(URI.create(nextPage), ProjectSummary[].class);
+
+        // then
+        assertEquals(HttpStatus.OK, firstPage.getStatusCode());
+        assertNotNull(firstPage.getBody());
+        assertEquals(1, firstPage.getBody().length);
+        assertEquals(nameMatch.getId(), firstPage.getBody()[0].projectId());
+        assertNotNull(secondPage.getBody());
+        assertEquals(1, secondPage.getBody().length);
+        assertEquals(descriptionMatch.getId(), secondPage.getBody()[0].projectId());
+        assertNull(secondPage.getHeaders().getFirst(HttpHeaders.LINK));
+    }
+
+    @Test
+    void exportProjectsAsNdjson() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            projectEntityRepository.save(new ProjectEntity(null, "Test Project " + i, "Test Description", emptyList()));
+        }
+        final RequestEntity<Void> request = RequestEntity.get("/project/_export").accept(APPLICATION_NDJSON).build();
+
+        // when
+        final ResponseEntity<String> responseEntity = testRestTemplate.exchange(request, String.class);
+
+        // then
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(APPLICATION_NDJSON, responseEntity.getHeaders().getContentType());
+        assertNotNull(responseEntity.getBody());
+        assertEquals(3, responseEntity.getBody().lines().count());
+        assertTrue(responseEntity.getBody().lines().allMatch(line -> line.contains("\"name\":\"Test Project")));
+    }
+
     @Test
     void createProject() {
         // given
@@ -113,7 +243,9 @@ public class ProjectControllerIntegrationTest {
                 null,
                 "Test Name",
                 "Test Description",
-                emptyList()
+                emptyList(),
+                null,
+                null
         );
 
         // when
@@ -126,6 +258,62 @@ public class ProjectControllerIntegrationTest {
         assertTrue(matchProjectWithoutId(responseEntity.getBody(), projectToCreate));
     }
 
+    @Test
+    void createProjectsInBulk() {
+        // given
+        final List<Project> projectsToCreate = List.of(
+                new Project(null, "First Name", "Test Description", emptyList(), null, null),
+                new Project(null, "X", "Test Description", emptyList(), null, null)
+        );
+
+        // when
+        final ResponseEntity<BulkItemResult[]> responseEntity = testRestTemplate.postForEntity("/project/_bulk", projectsToCreate, BulkItemResult[].class);
+
+        // then
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertNotNull(responseEntity.getBody());
+        assertEquals(201, responseEntity.getBody()[0].status());
+        assertNotNull(responseEntity.getBody()[0].projectId());
+        assertEquals(406, responseEntity.getBody()[1].status());
+        assertEquals(1, projectEntityRepository.count());
+    }
+
+    @Test
+    void createProjectsInBulkFromNdjson() {
+        // given
+        final String body = """
+                {"name": "First Name", "description": "Test Description", "projectMembers": []}
+                {"name": "Second Name", "description": "Test Description", "projectMembers": []}
+                """;
+        final RequestEntity<String> request = RequestEntity.post("/project/_bulk").contentType(APPLICATION_NDJSON).body(body);
+
+        // when
+        final ResponseEntity<BulkItemResult[]> responseEntity = testRestTemplate.exchange(request, BulkItemResult[].class);
+
+        // then
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertNotNull(responseEntity.getBody());
+        assertEquals(2, responseEntity.getBody().length);
+        assertEquals(2, projectEntityRepository.count());
+    }
+
+    @Test
+    void deleteProjectsInBulk() {
+        // given
+        final ProjectEntity savedProjectEntity = projectEntityRepository.save(new ProjectEntity(null, "Test Name", "Test Description", emptyList()));
+        final List<UUID> projectIds = List.of(savedProjectEntity.getId(), UUID.randomUUID());
+
+        // when
+        final ResponseEntity<BulkItemResult[]> responseEntity = testRestTemplate.postForEntity("/project/_bulk/delete", projectIds, BulkItemResult[].class);
+
+        // then
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertNotNull(responseEntity.getBody());
+        assertEquals(200, responseEntity.getBody()[0].status());
+        assertEquals(404, responseEntity.getBody()[1].status());
+        assertEquals(0, projectEntityRepository.count());
+    }
+
     @Test
     void createProjectFailsWhenIdIsGiven() {
         // given
@@ -133,7 +321,9 @@ public class ProjectControllerIntegrationTest {
                 UUID.randomUUID(),
                 "Test Name",
                 "Test Description",
-                emptyList()
+                emptyList(),
+                null,
+                null
         );
 
         // when
@@ -168,6 +358,61 @@ public class ProjectControllerIntegrationTest {
         assertNotNull(responseEntity.getBody());
     }
 
+    @Test
+    void updateProjectReturnsStoredMembers() {
+        // given
+        final ProjectEntity savedProjectEntity = projectEntityRepository.save(new ProjectEntity(null, "Test Name", "Test Description", emptyList()));
+        final ProjectMember member = new ProjectMember(null, "Test First Name", "Test Last Name", "test@example.com", "they/their",
+                "Test Member Description", "images/test.png");
+        final Project projectToUpdate = new Project(savedProjectEntity.getId(), "Changed Name", "Test Description", List.of(member), null, null);
+
+        // when
+        final ResponseEntity<Project> responseEntity = testRestTemplate.postForEntity("/project/" + projectToUpdate.projectId(), projectToUpdate, Project.class);
+
+        // then
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertNotNull(responseEntity.getBody());
+        assertEquals("Changed Name", responseEntity.getBody().name());
+        assertEquals(emptyList(), responseEntity.getBody().projectMembers());
+        assertEquals(responseEntity.getBody(), testRestTemplate.getForObject("/project/" + projectToUpdate.projectId(), Project.class));
+    }
+
+    @Test
+    void updateProjectWithMatchingETag() {
+        // given
+        final ProjectEntity savedProjectEntity = projectEntityRepository.save(new ProjectEntity(null, "Test Name", "Test Description", emptyList()));
+        final Project projectToUpdate = projectMapper.mapFromProjectEntity(savedProjectEntity);
+        final RequestEntity<Project> request = RequestEntity.post("/project/" + projectToUpdate.projectId())
+                .ifMatch("\"" + projectToUpdate.version() + "\"")
+                .body(projectToUpdate);
+
+        // when
+        final ResponseEntity<Project> responseEntity = testRestTemplate.exchange(request, Project.class);
+
+        // then
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertNotNull(responseEntity.getBody());
+        assertEquals(projectToUpdate.version() + 1, responseEntity.getBody().version());
+        assertEquals("\"" + (projectToUpdate.version() + 1) + "-json\"", responseEntity.getHeaders().getETag());
+    }
+
+    @Test
+    void updateProjectFailsWhenETagIsStale() {
+        // given
+        final ProjectEntity savedProjectEntity = projectEntityRepository.save(new ProjectEntity(null, "Test Name", "Test Description", emptyList()));
+        final Project projectToUpdate = projectMapper.mapFromProjectEntity(savedProjectEntity);
+        testRestTemplate.postForEntity("/project/" + projectToUpdate.projectId(), projectToUpdate, Project.class);
+        final RequestEntity<Project> request = RequestEntity.post("/project/" + projectToUpdate.projectId())
+                .ifMatch("\"" + projectToUpdate.version() + "\"")
+                .body(projectToUpdate);
+
+        // when
+        final ResponseEntity<String> responseEntity = testRestTemplate.exchange(request, String.class);
+
+        // then
+        assertEquals(HttpStatus.PRECONDITION_FAILED, responseEntity.getStatusCode());
+    }
+
     @Test
     void updateProjectFailsWhenIdsDontMatch() {
         // given
@@ -175,7 +420,9 @@ public class ProjectControllerIntegrationTest {
                 UUID.randomUUID(),
                 "Test Name",
                 "Test Description",
-                emptyList()
+                emptyList(),
+                null,
+                null
         );
 
         // when
@@ -196,7 +443,9 @@ public class ProjectControllerIntegrationTest {
                 projectId,
                 "Test Name",
                 "Test Description",
-                emptyList()
+                emptyList(),
+                null,
+                null
         );
 
         // when
@@ -229,6 +478,59 @@ public class ProjectControllerIntegrationTest {
         assertNotNull(responseEntity.getBody());
     }
 
+    @Test
+    void getProjectsById() {
+        // given
+        final ProjectEntity firstEntity = projectEntityRepository.save(new ProjectEntity(null, "First Name", "Test Description", emptyList()));
+        final ProjectEntity secondEntity = projectEntityRepository.save(new ProjectEntity(null, "Second Name", "Test Description", emptyList()));
+        final UUID missingId = UUID.randomUUID();
+
+        // when
+        final ResponseEntity<ProjectBatch> responseEntity = testRestTemplate.postForEntity("/project/_mget",
+                List.of(secondEntity.getId(), missingId, firstEntity.getId()), ProjectBatch.class);
+
+        // then
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertNotNull(responseEntity.getBody());
+        assertEquals(List.of(secondEntity.getId(), firstEntity.getId()),
+                responseEntity.getBody().projects().stream().map(Project::projectId).toList());
+        assertEquals(List.of(missingId), responseEntity.getBody().missingProjectIds());
+    }
+
+    @Test
+    void getProjectsByIdFailsWhenTooManyIdsAreGiven() {
+        // given
+        final List<UUID> projectIds = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            projectIds.add(UUID.randomUUID());
+        }
+
+        // when
+        final ResponseEntity<String> responseEntity = testRestTemplate.postForEntity("/project/_mget", projectIds, String.class);
+
+        // then
+        assertEquals(HttpStatus.NOT_ACCEPTABLE, responseEntity.getStatusCode());
+    }
+
+    @Test
+    void getProjectStats() {
+        // given
+        final ProjectMember member = new ProjectMember(null, "Test First Name", "Test Last Name", "test@example.com", "they/their",
+                "Test Member Description", "images/test.png");
+        testRestTemplate.postForEntity("/project", new Project(null, "First Name", "Test Description", List.of(member), null, null), Project.class);
+        testRestTemplate.postForEntity("/project", new Project(null, "Second Name", "Test Description", emptyList(), null, null), Project.class);
+
+        // when
+        final ResponseEntity<ProjectStats> responseEntity = testRestTemplate.getForEntity("/project/_stats", ProjectStats.class);
+
+        // then
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertNotNull(responseEntity.getBody());
+        assertEquals(2, responseEntity.getBody().projectCount());
+        assertEquals(1, responseEntity.getBody().membershipCount());
+        assertEquals(0.5, responseEntity.getBody().averageMembersPerProject());
+    }
+
     @Test
     void getProjectThrows404IfNotFound() {
         // given
@@ -241,6 +543,191 @@ public class ProjectControllerIntegrationTest {
         assertEquals(APPLICATION_JSON, responseEntity.getHeaders().getContentType());
     }
 
+    @Test
+    void getProjectAnswersNotModifiedForCurrentETag() {
+        // given
+        final ProjectEntity savedProjectEntity = projectEntityRepository.save(new ProjectEntity(null, "Test Name", "Test Description", emptyList()));
+        final ResponseEntity<Project> firstResponse = testRestTemplate.getForEntity("/project/" + savedProjectEntity.getId(), Project.class);
+        final RequestEntity<Void> request = RequestEntity.get("/project/" + savedProjectEntity.getId())
+                .ifNoneMatch(firstResponse.getHeaders().getETag())
+                .build();
+
+        // when
+        final ResponseEntity<Project> responseEntity = testRestTemplate.exchange(request, Project.class);
+
+        // then
+        assertNotNull(firstResponse.getHeaders().getETag());
+        assertTrue(firstResponse.getHeaders().getLastModified() > 0);
+        assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+        assertNull(responseEntity.getBody());
+        assertEquals(firstResponse.getHeaders().getETag(), responseEntity.getHeaders().getETag());
+    }
+
+    @Test
+    void getProjectTagsEachContentTypeSeparately() {
+        // given
+        final ProjectEntity savedProjectEntity = projectEntityRepository.save(new ProjectEntity(null, "Test Name", "Test Description", emptyList()));
+        final String jsonETag = testRestTemplate.getForEntity("/project/" + savedProjectEntity.getId(), Project.class).getHeaders().getETag();
+        final RequestEntity<Void> request = RequestEntity.get("/project/" + savedProjectEntity.getId())
+                .accept(APPLICATION_CBOR)
+                .ifNoneMatch(jsonETag)
+                .build();
+
+        // when
+        final ResponseEntity<byte[]> responseEntity = testRestTemplate.exchange(request, byte[].class);
+
+        // then
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(APPLICATION_CBOR, responseEntity.getHeaders().getContentType());
+        assertNotEquals(jsonETag, responseEntity.getHeaders().getETag());
+        assertTrue(responseEntity.getHeaders().getVary().contains(HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void getProjectReturnsBodyForStaleETag() {
+        // given
+        final ProjectEntity savedProjectEntity = projectEntityRepository.save(new ProjectEntity(null, "Test Name", "Test Description", emptyList()));
+        final String staleETag = testRestTemplate.getForEntity("/project/" + savedProjectEntity.getId(), Project.class).getHeaders().getETag();
+        final Project project = projectMapper.mapFromProjectEntity(savedProjectEntity);
+        testRestTemplate.postForEntity("/project/" + project.projectId(), project, Project.class);
+        final RequestEntity<Void> request = RequestEntity.get("/project/" + savedProjectEntity.getId())
+                .ifNoneMatch(staleETag)
+                .build();
+
+        // when
+        final ResponseEntity<Project> responseEntity = testRestTemplate.exchange(request, Project.class);
+
+        // then
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertNotNull(responseEntity.getBody());
+        assertNotEquals(staleETag, responseEntity.getHeaders().getETag());
+    }
+
+    @Test
+    void listProjectsAnswersNotModifiedUntilTheTableChanges() {
+        // given
+        projectEntityRepository.save(new ProjectEntity(null, "Test Name", "Test Description", emptyList()));
+        final String eTag = testRestTemplate.getForEntity("/project", Project[].class).getHeaders().getETag();
+        final RequestEntity<Void> request = RequestEntity.get("/project").ifNoneMatch(eTag).build();
+
+        // when
+        final ResponseEntity<Project[]> unchangedResponse = testRestTemplate.exchange(request, Project[].class);
+        projectEntityRepository.save(new ProjectEntity(null, "Other Name", "Other Description", emptyList()));
+        final ResponseEntity<Project[]> changedResponse = testRestTemplate.exchange(request, Project[].class);
+
+        // then
+        assertNotNull(eTag);
+        assertEquals(HttpStatus.NOT_MODIFIED, unchangedResponse.getStatusCode());
+        assertEquals(HttpStatus.OK, changedResponse.getStatusCode());
+        assertNotNull(changedResponse.getBody());
+        assertEquals(2, changedResponse.getBody().length);
+    }
+
+    @Test
+    void changeProjectsWhileAnotherTransactionChangesThemToo() throws Exception {
+        // given
+        final String eTag = testRestTemplate.getForEntity("/project", Project[].class).getHeaders().getETag();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("insert into project (id, name, description) values (gen_random_uuid(), 'Open Name', 'Open Description')");
+            }
+
+            // when
+            final ResponseEntity<Project> createResponse = CompletableFuture
+                    .supplyAsync(() -> testRestTemplate.postForEntity("/project",
+                            new Project(null, "Test Name", "Test Description", emptyList(), null, null), Project.class))
+                    .get(10, TimeUnit.SECONDS);
+            final String eTagAfterCreate = testRestTemplate.getForEntity("/project", Project[].class).getHeaders().getETag();
+            connection.commit();
+            final String eTagAfterCommit = testRestTemplate.getForEntity("/project", Project[].class).getHeaders().getETag();
+
+            // then
+            assertEquals(HttpStatus.CREATED, createResponse.getStatusCode());
+            assertNotEquals(eTag, eTagAfterCreate);
+            assertNotEquals(eTagAfterCreate, eTagAfterCommit);
+        }
+    }
+
+    @Test
+    void getProjectsAsCbor() throws IOException {
+        // given
+        final ProjectEntity savedProjectEntity = projectEntityRepository.save(new ProjectEntity(null, "Test Name", "Test Description", emptyList()));
+        final RequestEntity<Void> request = RequestEntity.get("/project").accept(APPLICATION_CBOR).build();
+
+        // when
+        final ResponseEntity<byte[]> responseEntity = testRestTemplate.exchange(request, byte[].class);
+
+        // then
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(APPLICATION_CBOR, responseEntity.getHeaders().getContentType());
+        final Project[] projects = new ObjectMapper(new CBORFactory()).findAndRegisterModules().readValue(responseEntity.getBody(), Project[].class);
+        assertEquals(1, projects.length);
+        assertEquals(savedProjectEntity.getId(), projects[0].projectId());
+    }
+
+    @Test
+    void getProjectAsCborFromResponseCache() throws IOException {
+        // given
+        final ProjectEntity savedProjectEntity = projectEntityRepository.save(new ProjectEntity(null, "Test Name", "Test Description", emptyList()));
+        final RequestEntity<Void> request = RequestEntity.get("/project/" + savedProjectEntity.getId()).accept(APPLICATION_CBOR).build();
+        final ResponseEntity<byte[]> firstResponse = testRestTemplate.exchange(request, byte[].class);
+
+        // when
+        final ResponseEntity<byte[]> responseEntity = testRestTemplate.exchange(request, byte[].class);
+
+        // then
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(APPLICATION_CBOR, responseEntity.getHeaders().getContentType());
+        assertEquals("\"" + savedProjectEntity.getVersion() + "-cbor\"", responseEntity.getHeaders().getETag());
+        assertTrue(responseEntity.getHeaders().getVary().contains(HttpHeaders.ACCEPT));
+        assertTrue(responseEntity.getHeaders().getLastModified() > 0);
+        assertEquals(firstResponse.getBody().length, responseEntity.getHeaders().getContentLength());
+        final Project project = new ObjectMapper(new CBORFactory()).findAndRegisterModules().readValue(responseEntity.getBody(), Project.class);
+        assertEquals(savedProjectEntity.getId(), project.projectId());
+    }
+
+    @Test
+    void negotiateLikeTheMessageConvertersWhenServingFromResponseCache() {
+        // given
+        final ProjectEntity savedProjectEntity = projectEntityRepository.save(new ProjectEntity(null, "Test Name", "Test Description", emptyList()));
+        final List<String> acceptHeaders = List.of(
+                "application/cbor;q=0.1, application/json",
+                "application/json;q=0.5, application/cbor",
+                "*/*;q=0.5, application/x-jackson-smile");
+
+        for (final String accept : acceptHeaders) {
+            // when
+            final ResponseEntity<byte[]> cachedResponse = testRestTemplate.exchange(
+                    RequestEntity.get("/project/" + savedProjectEntity.getId()).header(HttpHeaders.ACCEPT, accept).build(), byte[].class);
+            final ResponseEntity<byte[]> convertedResponse = testRestTemplate.exchange(
+                    RequestEntity.get("/project/_stats").header(HttpHeaders.ACCEPT, accept).build(), byte[].class);
+
+            // then
+            assertEquals(HttpStatus.OK, cachedResponse.getStatusCode());
+            assertEquals(HttpStatus.OK, convertedResponse.getStatusCode());
+            assertEquals(convertedResponse.getHeaders().getContentType(), cachedResponse.getHeaders().getContentType(), accept);
+        }
+    }
+
+    @Test
+    void compressLargeResponses() {
+        // given
+        for (int i = 0; i < 50; i++) {
+            projectEntityRepository.save(new ProjectEntity(null, "Test Name " + i, "Test Description " + i, emptyList()));
+        }
+        final RequestEntity<Void> request = RequestEntity.get("/project")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+
+        // when
+        final ResponseEntity<byte[]> responseEntity = testRestTemplate.exchange(request, byte[].class);
+
+        // then
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals("gzip", responseEntity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
     @Test
     void deleteProject() {
         // given
@@ -264,6 +751,22 @@ public class ProjectControllerIntegrationTest {
         assertNotNull(body);
     }
 
+    @Test
+    void deleteProjectWithoutReturningIt() {
+        // given
+        final ProjectEntity savedProjectEntity = projectEntityRepository.save(new ProjectEntity(null, "Test Name", "Test Description", emptyList()));
+        final RequestEntity<Void> request = RequestEntity.method(HttpMethod.DELETE, "/project/" + savedProjectEntity.getId())
+                .header("Prefer", "return=minimal")
+                .build();
+
+        // when
+        final ResponseEntity<Void> responseEntity = testRestTemplate.exchange(request, Void.class);
+
+        // then
+        assertEquals(HttpStatus.NO_CONTENT, responseEntity.getStatusCode());
+        assertTrue(projectEntityRepository.findById(savedProjectEntity.getId()).isEmpty());
+    }
+
     @Test
     void deleteProjectThrows404IfNotFound() {
         // given
@@ -277,6 +780,206 @@ public class ProjectControllerIntegrationTest {
         assertEquals(APPLICATION_JSON, responseEntity.getHeaders().getContentType());
     }
 
+    @Test
+    void patchOnlyTheGivenFields() throws Exception {
+        // given
+        final ProjectEntity savedProjectEntity = projectEntityRepository.save(new ProjectEntity(null, "Test Name", "Test Description", emptyList()));
+        // the default client of the TestRestTemplate cannot send PATCH requests
+        final HttpRequest request = HttpRequest.newBuilder(URI.create(testRestTemplate.getRootUri() + "/project/" + savedProjectEntity.getId()))
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"name\": \"Patched Name\"}"))
+                .header(HttpHeaders.CONTENT_TYPE, "application/merge-patch+json")
+                .header(HttpHeaders.IF_MATCH, "\"0-json\"")
+                .build();
+
+        // when
+        final HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+        // then
+        assertEquals(HttpStatus.OK.value(), response.statusCode());
+        assertEquals("\"1-json\"", response.headers().firstValue(HttpHeaders.ETAG).orElse(null));
+        final ProjectEntity patchedEntity = projectEntityRepository.findById(savedProjectEntity.getId()).orElseThrow();
+        assertEquals("Patched Name", patchedEntity.getName());
+        assertEquals("Test Description", patchedEntity.getDescription());
+    }
+
+    @Test
+    void addAndRemoveProjectMembers() {
+        // given
+        final ProjectEntity savedProjectEntity = projectEntityRepository.save(new ProjectEntity(null, "Test Name", "Test Description", emptyList()));
+        final String membersPath = "/project/" + savedProjectEntity.getId() + "/members";
+        final ProjectMember projectMember = new ProjectMember(null, "Test First Name", "Test Last Name", "test@example.com",
+                "they/their", "Test Member Description", "images/test.png");
+
+        // when
+        final ResponseEntity<ProjectMember> addResponse = testRestTemplate.postForEntity(membersPath, projectMember, ProjectMember.class);
+
+        // then
+        assertEquals(HttpStatus.CREATED, addResponse.getStatusCode());
+        assertNotNull(addResponse.getBody());
+        final UUID projectMemberId = addResponse.getBody().projectMemberId();
+        assertNotNull(projectMemberId);
+        final Project project = testRestTemplate.getForObject("/project/" + savedProjectEntity.getId(), Project.class);
+        assertEquals(List.of(new ProjectMember(projectMemberId, "Test First Name", "Test Last Name", "test@example.com",
+                "they/their", "Test Member Description", "images/test.png")), project.projectMembers());
+        assertEquals(1L, project.version());
+
+        // when
+        testRestTemplate.delete(membersPath + "/" + projectMemberId);
+
+        // then
+        final ResponseEntity<ProjectMember[]> membersResponse = testRestTemplate.getForEntity(membersPath, ProjectMember[].class);
+        assertEquals(HttpStatus.OK, membersResponse.getStatusCode());
+        assertEquals(0, membersResponse.getBody().length);
+    }
+
+    @Test
+    void mergePatchProjectMember() throws Exception {
+        // given
+        final ProjectEntity savedProjectEntity = projectEntityRepository.save(new ProjectEntity(null, "Test Name", "Test Description", emptyList()));
+        final String membersPath = "/project/" + savedProjectEntity.getId() + "/members";
+        final ProjectMember projectMember = testRestTemplate.postForObject(membersPath, new ProjectMember(null, "Test First Name",
+                "Test Last Name", "test@example.com", "they/their", "Test Member Description", "images/test.png"), ProjectMember.class);
+        final HttpRequest request = HttpRequest.newBuilder(URI.create(testRestTemplate.getRootUri() + membersPath + "/" + projectMember.projectMemberId()))
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"lastName\": \"Patched Last Name\", \"pronouns\": null}"))
+                .header(HttpHeaders.CONTENT_TYPE, "application/merge-patch+json")
+                .build();
+
+        // when
+        final HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+        // then
+        assertEquals(HttpStatus.OK.value(), response.statusCode());
+        final ProjectMember[] members = testRestTemplate.getForObject(membersPath, ProjectMember[].class);
+        assertEquals(new ProjectMember(projectMember.projectMemberId(), "Test First Name", "Patched Last Name", "test@example.com",
+                null, "Test Member Description", "images/test.png"), members[0]);
+    }
+
+    @Test
+    void rejectMembersOfUnknownProjects() {
+        // given
+        final ProjectMember projectMember = new ProjectMember(null, "Test First Name", "Test Last Name", "test@example.com",
+                "they/their", "Test Member Description", "images/test.png");
+
+        // when
+        final ResponseEntity<String> responseEntity = testRestTemplate.postForEntity("/project/" + UUID.randomUUID() + "/members", projectMember, String.class);
+
+        // then
+        assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
+    }
+
+    @Test
+    void followProjectChangesFromTheOutbox() {
+        // given
+        final Project createdProject = testRestTemplate.postForObject("/project", new Project(null, "Test Name", "Test Description", emptyList(), null, null), Project.class);
+        testRestTemplate.delete("/project/" + createdProject.projectId());
+
+        // when
+        final List<ProjectChangeEntry> changes = new ArrayList<>();
+        String since = "";
+        ProjectChangeBatch batch;
+        do {
+            batch = testRestTemplate.getForObject("/project/changes?since=" + since + "&limit=1000", ProjectChangeBatch.class);
+            changes.addAll(batch.changes());
+            since = batch.nextSince();
+        } while (!batch.changes().isEmpty());
+
+        // then
+        assertEquals(List.of(ProjectChange.Type.CREATED, ProjectChange.Type.DELETED), changes.stream()
+                .filter(change -> change.projectId().equals(createdProject.projectId()))
+                .map(ProjectChangeEntry::type)
+                .toList());
+    }
+
+    @Test
+    void wakeUpWaitingChangePollOnCommit() throws Exception {
+        // given
+        final String caughtUp = catchUpWithChanges();
+        final CompletableFuture<ProjectChangeBatch> poll = CompletableFuture.supplyAsync(() ->
+                testRestTemplate.getForObject("/project/changes?since=" + caughtUp, ProjectChangeBatch.class));
+
+        // when
+        Thread.sleep(200);
+        final Project createdProject = testRestTemplate.postForObject("/project", new Project(null, "Test Name", "Test Description", emptyList(), null, null), Project.class);
+
+        // then
+        final ProjectChangeBatch polled = poll.get(5, TimeUnit.SECONDS);
+        assertEquals(1, polled.changes().size());
+        assertEquals(createdProject.projectId(), polled.changes().get(0).projectId());
+        assertEquals(polled.changes().get(0).transactionId() + "_" + polled.changes().get(0).sequence(), polled.nextSince());
+    }
+
+    @Test
+    void deliverChangesOfAnOlderTransactionCommittingALowerSequenceLater() throws Exception {
+        // given
+        final String caughtUp = catchUpWithChanges();
+        final UUID olderTransactionProject = UUID.randomUUID();
+        final UUID newerTransactionProject = UUID.randomUUID();
+
+        try (Connection olderTransaction = dataSource.getConnection(); Connection newerTransaction = dataSource.getConnection()) {
+            olderTransaction.setAutoCommit(false);
+            newerTransaction.setAutoCommit(false);
+            // transaction ids are taken in this order, like an UPDATE taking its id before the outbox insert
+            assignTransactionId(olderTransaction);
+            assignTransactionId(newerTransaction);
+            appendToOutbox(newerTransaction, newerTransactionProject);
+            appendToOutbox(olderTransaction, olderTransactionProject);
+            olderTransaction.commit();
+
+            // when
+            final ProjectChangeBatch firstBatch = testRestTemplate.getForObject("/project/changes?since=" + caughtUp, ProjectChangeBatch.class);
+            newerTransaction.commit();
+            final ProjectChangeBatch secondBatch = testRestTemplate.getForObject("/project/changes?since=" + firstBatch.nextSince(), ProjectChangeBatch.class);
+
+            // then
+            assertEquals(List.of(olderTransactionProject), firstBatch.changes().stream().map(ProjectChangeEntry::projectId).toList());
+            assertEquals(List.of(newerTransactionProject), secondBatch.changes().stream().map(ProjectChangeEntry::projectId).toList());
+            assertTrue(secondBatch.changes().get(0).sequence() < firstBatch.changes().get(0).sequence());
+        }
+    }
+
+    @Test
+    void exposeRequestMetricsInPrometheusFormat() {
+        // given
+        testRestTemplate.getForEntity("/project/" + UUID.randomUUID(), String.class);
+
+        // when
+        final ResponseEntity<String> responseEntity = testRestTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        // then
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertNotNull(responseEntity.getBody());
+        assertTrue(responseEntity.getBody().contains("http_server_requests_seconds_count{"));
+        assertTrue(responseEntity.getBody().contains("status=\"404\""));
+        assertTrue(responseEntity.getBody().contains("http_server_requests_queries"));
+        assertTrue(responseEntity.getBody().contains("project_service_seconds"));
+        assertTrue(responseEntity.getBody().contains("hibernate_statements_total"));
+        assertTrue(responseEntity.getBody().contains("hikaricp_connections_acquire_seconds"));
+    }
+
+    private String catchUpWithChanges() {
+        String since = "";
+        ProjectChangeBatch batch;
+        do {
+            batch = testRestTemplate.getForObject("/project/changes?since=" + since + "&limit=1000", ProjectChangeBatch.class);
+            since = batch.nextSince();
+        } while (!batch.changes().isEmpty());
+        return since;
+    }
+
+    private static void assignTransactionId(final Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("select pg_current_xact_id()");
+        }
+    }
+
+    private static void appendToOutbox(final Connection connection, final UUID projectId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "insert into project_outbox (project_id, change_type, version, occurred_at) values (?, 'UPDATED', 1, now())")) {
+            statement.setObject(1, projectId);
+            statement.executeUpdate();
+        }
+    }
+
     private boolean matchProjectWithoutId(final Project a, final Project b) {
         final boolean equals = a.projectMembers().equals(b.projectMembers());
         return a.name().equals(b.name())
@@ -0,0 +1,125 @@
+package de.tfdw.example.integration;
+
+import de.tfdw.example.dto.CursorPage;
+import de.tfdw.example.dto.Project;
+import de.tfdw.example.dto.ProjectSummary;
+import de.tfdw.example.service.ProjectService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Testcontainers
+public class ProjectFetchPlanIntegrationTest {
+
+    private static final int PROJECT_COUNT = 1000;
+
+    private static final int MEMBERS_PER_PROJECT = 20;
+
+    @Container
+    @SuppressWarnings("rawtypes")
+    static final PostgreSQLContainer postgresqlContainer = new PostgreSQLContainer("postgres:14.5")
+            .withDatabaseName("testDatabase")
+            .withUsername("testUser")
+            .withPassword("testPassword");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        postgresqlContainer.start();
+        registry.add("spring.datasource.url", postgresqlContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresqlContainer::getUsername);
+        registry.add("spring.datasource.password", postgresqlContainer::getPassword);
+    }
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private UUID firstProjectId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from project_project_members");
+        jdbcTemplate.update("delete from project_member");
+        jdbcTemplate.update("delete from project");
+
+        final List<Object[]> projects = new ArrayList<>();
+        final List<Object[]> members = new ArrayList<>();
+        final List<Object[]> memberships = new ArrayList<>();
+        for (int i = 0; i < PROJECT_COUNT; i++) {
+            final UUID projectId = UUID.randomUUID();
+            projects.add(new Object[]{projectId, "Project " + i, "Test Description"});
+            for (int j = 0; j < MEMBERS_PER_PROJECT; j++) {
+                final UUID memberId = UUID.randomUUID();
+                members.add(new Object[]{memberId});
+                memberships.add(new Object[]{projectId, memberId});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into project (id, name, description) values (?, ?, ?)", projects);
+        jdbcTemplate.batchUpdate("insert into project_member (id) values (?)", members);
+        jdbcTemplate.batchUpdate("insert into project_project_members (project_id, project_member_id) values (?, ?)", memberships);
+        firstProjectId = (UUID) projects.get(0)[0];
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listsProjectsWithMembersInTwoStatements() {
+        // when
+        final CursorPage<Project> page = projectService.listProjects(null, null, null, PROJECT_COUNT);
+
+        // then
+        assertEquals(PROJECT_COUNT, page.items().size());
+        assertNull(page.nextCursor());
+        page.items().forEach(project -> assertEquals(MEMBERS_PER_PROJECT, project.projectMembers().size()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listsProjectSummariesInOneStatement() {
+        // when
+        final CursorPage<ProjectSummary> page = projectService.listProjectSummaries(null, null, null, PROJECT_COUNT);
+
+        // then
+        assertEquals(PROJECT_COUNT, page.items().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void getsProjectWithMembersInOneStatement() {
+        // when
+        final Project project = projectService.getProject(firstProjectId);
+
+        // then
+        assertEquals(MEMBERS_PER_PROJECT, project.projectMembers().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
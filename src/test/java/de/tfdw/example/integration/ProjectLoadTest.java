@@ -0,0 +1,217 @@
+package de.tfdw.example.integration;
+
+import de.tfdw.example.ExampleAppApplication;
+import de.tfdw.example.model.ProjectEntity;
+import de.tfdw.example.model.ProjectMemberEntity;
+import de.tfdw.example.repository.ProjectEntityRepository;
+import eu.rekawek.toxiproxy.Proxy;
+import eu.rekawek.toxiproxy.ToxiproxyClient;
+import eu.rekawek.toxiproxy.model.ToxicDirection;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.ToxiproxyContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares platform and virtual request threads and the {@code reactive} profile while every database
+ * round trip is delayed by a proxy. Excluded from the regular build, run it with {@code ./gradlew loadTest}.
+ */
+@Tag("load")
+@Testcontainers
+class ProjectLoadTest {
+
+    private static final int CLIENTS = 1000;
+
+    private static final int REQUESTS_PER_CLIENT = 20;
+
+    // more than the 20 pooled connections
+    private static final int EXPORT_CLIENTS = 50;
+
+    private static final int EXPORT_REQUESTS_PER_CLIENT = 2;
+
+    private static final int DATABASE_LATENCY_MILLIS = 10;
+
+    // well below the 30s pool and acquire timeouts, so requests queueing up to those timeouts fail the test
+    private static final long MAX_P99_MILLIS = 10_000;
+
+    private static final String PLATFORM_THREADS = "platform threads";
+
+    private static final String VIRTUAL_THREADS = "virtual threads";
+
+    private static final String REACTIVE = "reactive";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProjectLoadTest.class);
+
+    private static final Network network = Network.newNetwork();
+
+    @Container
+    @SuppressWarnings("rawtypes")
+    static final PostgreSQLContainer postgresqlContainer = new PostgreSQLContainer("postgres:14.5")
+            .withNetwork(network)
+            .withNetworkAliases("postgres")
+            .withDatabaseName("testDatabase")
+            .withUsername("testUser")
+            .withPassword("testPassword");
+
+    @Container
+    static final ToxiproxyContainer toxiproxyContainer = new ToxiproxyContainer("ghcr.io/shopify/toxiproxy:2.5.0")
+            .withNetwork(network);
+
+    private static String jdbcUrl;
+
+    private static String r2dbcUrl;
+
+    @BeforeAll
+    static void slowDownDatabase() throws IOException {
+        final ToxiproxyClient toxiproxyClient = new ToxiproxyClient(toxiproxyContainer.getHost(), toxiproxyContainer.getControlPort());
+        final Proxy proxy = toxiproxyClient.createProxy("postgres", "0.0.0.0:8666", "postgres:5432");
+        proxy.toxics().latency("latency", ToxicDirection.DOWNSTREAM, DATABASE_LATENCY_MILLIS);
+        jdbcUrl = "jdbc:postgresql://" + toxiproxyContainer.getHost() + ":" + toxiproxyContainer.getMappedPort(8666) + "/testDatabase";
+        r2dbcUrl = "r2dbc:postgresql://" + toxiproxyContainer.getHost() + ":" + toxiproxyContainer.getMappedPort(8666) + "/testDatabase";
+    }
+
+    /**
+     * Uses the default page size, so every response carries 100 projects and their members.
+     */
+    @ParameterizedTest(name = "stack: {0}")
+    @ValueSource(strings = {PLATFORM_THREADS, VIRTUAL_THREADS, REACTIVE})
+    void serveConcurrentListRequests(final String stack) throws Exception {
+        try (ConfigurableApplicationContext context = startStack(stack)) {
+            final URI uri = uri(context, "/api/project");
+
+            final LoadResult warmUp = runLoad(uri, 50, 10);
+            assertEquals(0, warmUp.failures());
+
+            assertLoadServed(stack + " list", runLoad(uri, CLIENTS, REQUESTS_PER_CLIENT));
+        }
+    }
+
+    /**
+     * Every export streams the whole table, so more concurrent exports than pooled connections must still
+     * complete.
+     */
+    @ParameterizedTest(name = "stack: {0}")
+    @ValueSource(strings = {PLATFORM_THREADS, VIRTUAL_THREADS, REACTIVE})
+    void serveConcurrentExports(final String stack) throws Exception {
+        try (ConfigurableApplicationContext context = startStack(stack)) {
+            assertLoadServed(stack + " export", runLoad(uri(context, "/api/project/_export"), EXPORT_CLIENTS, EXPORT_REQUESTS_PER_CLIENT));
+        }
+    }
+
+    private static ConfigurableApplicationContext startStack(final String stack) {
+        final ConfigurableApplicationContext context = new SpringApplicationBuilder(ExampleAppApplication.class)
+                .profiles(REACTIVE.equals(stack) ? new String[]{REACTIVE} : new String[0])
+                // arguments instead of default properties, which application.yml would override
+                .run(
+                        "--server.port=0",
+                        "--project.threads.virtual=" + VIRTUAL_THREADS.equals(stack),
+                        "--spring.datasource.url=" + jdbcUrl,
+                        "--spring.datasource.username=" + postgresqlContainer.getUsername(),
+                        "--spring.datasource.password=" + postgresqlContainer.getPassword(),
+                        "--spring.r2dbc.url=" + r2dbcUrl
+                );
+        seedProjects(context.getBean(ProjectEntityRepository.class));
+        return context;
+    }
+
+    private static URI uri(final ConfigurableApplicationContext context, final String path) {
+        return URI.create("http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port") + path);
+    }
+
+    private static void assertLoadServed(final String scenario, final LoadResult result) {
+        LOGGER.info("{}: requests: {}, throughput: {} req/s, p50: {} ms, p99: {} ms, max: {} ms",
+                scenario, result.latenciesMillis().length, Math.round(result.throughput()),
+                result.percentile(50), result.percentile(99), result.percentile(100));
+        assertEquals(0, result.failures());
+        assertTrue(result.percentile(99) <= MAX_P99_MILLIS,
+                "p99 of " + result.percentile(99) + " ms exceeds " + MAX_P99_MILLIS + " ms with " + scenario);
+    }
+
+    private static void seedProjects(final ProjectEntityRepository projectEntityRepository) {
+        if (projectEntityRepository.count() > 0) {
+            return;
+        }
+        projectEntityRepository.saveAll(IntStream.range(0, 1000)
+                .mapToObj(i -> new ProjectEntity("Load Project " + i, "Load Description " + i, List.of(new ProjectMemberEntity(
+                        "Load", "Member " + i, "load" + i + "@example.com", "they/their", "Load Member Description", "images/load.png"))))
+                .toList());
+    }
+
+    private static LoadResult runLoad(final URI uri, final int clients, final int requestsPerClient) throws Exception {
+        final HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        final HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+        final long start = System.nanoTime();
+        final List<Future<long[]>> futures = new ArrayList<>(clients);
+        int failures = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clients; client++) {
+                futures.add(executor.submit(() -> {
+                    final long[] latencies = new long[requestsPerClient];
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        final long requestStart = System.nanoTime();
+                        final HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[i] = response.statusCode() == 200 ? (System.nanoTime() - requestStart) / 1_000_000 : -1;
+                    }
+                    return latencies;
+                }));
+            }
+        }
+        final double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        final long[] latencies = new long[clients * requestsPerClient];
+        int position = 0;
+        for (final Future<long[]> future : futures) {
+            for (final long latency : future.get()) {
+                if (latency < 0) {
+                    failures++;
+                } else {
+                    latencies[position++] = latency;
+                }
+            }
+        }
+        final long[] successfulLatencies = Arrays.copyOf(latencies, position);
+        Arrays.sort(successfulLatencies);
+
+        return new LoadResult(successfulLatencies, failures, successfulLatencies.length / seconds);
+    }
+
+    private record LoadResult(long[] latenciesMillis, int failures, double throughput) {
+
+        long percentile(final int percentile) {
+            if (latenciesMillis.length == 0) {
+                return 0;
+            }
+            final int index = (int) Math.ceil(percentile / 100.0 * latenciesMillis.length) - 1;
+            return latenciesMillis[Math.max(index, 0)];
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package de.tfdw.example.integration;
+
+import de.tfdw.example.dto.Project;
+import de.tfdw.example.dto.ProjectMember;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.MediaType.APPLICATION_CBOR;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "reactive"})
+@Testcontainers
+public class ReactiveProjectControllerIntegrationTest {
+
+    @Container
+    @SuppressWarnings("rawtypes")
+    static final PostgreSQLContainer postgresqlContainer = new PostgreSQLContainer("postgres:14.5")
+            .withDatabaseName("testDatabase")
+            .withUsername("testUser")
+            .withPassword("testPassword");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        postgresqlContainer.start();
+        registry.add("spring.datasource.url", postgresqlContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresqlContainer::getUsername);
+        registry.add("spring.datasource.password", postgresqlContainer::getPassword);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + postgresqlContainer.getHost() + ":"
+                + postgresqlContainer.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/testDatabase");
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from project_project_members");
+        jdbcTemplate.update("delete from project_member");
+        jdbcTemplate.update("delete from project");
+    }
+
+    @Test
+    void createAndGetProjectWithMembers() {
+        // given
+        final ProjectMember member = new ProjectMember(null, "Test First Name", "Test Last Name", "test@example.com", "they/their",
+                "Test Member Description", "images/test.png");
+        final Project projectToCreate = new Project(null, "Test Name", "Test Description", List.of(member), null, null);
+
+        // when
+        final Project createdProject = webTestClient.post().uri("/project")
+                .bodyValue(projectToCreate)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Project.class)
+                .returnResult()
+                .getResponseBody();
+
+        // then
+        assertNotNull(createdProject);
+        assertNotNull(createdProject.projectId());
+        assertEquals(1, createdProject.projectMembers().size());
+        final Project loadedProject = webTestClient.get().uri("/project/{id}", createdProject.projectId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0-json\"")
+                .expectHeader().values(HttpHeaders.VARY, vary -> assertTrue(vary.contains(HttpHeaders.ACCEPT)))
+                .expectBody(Project.class)
+                .returnResult()
+                .getResponseBody();
+        assertEquals(createdProject, loadedProject);
+        webTestClient.get().uri("/project/{id}", createdProject.projectId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0-json\"")
+                .exchange()
+                .expectStatus().isNotModified();
+        webTestClient.get().uri("/project/{id}", createdProject.projectId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0-json\"")
+                .accept(APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(APPLICATION_CBOR)
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0-cbor\"");
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from project_outbox where project_id = ?", Integer.class,
+                createdProject.projectId()));
+    }
+
+    @Test
+    void pageThroughProjects() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            createProject("Test Name " + i);
+        }
+
+        // when
+        final List<Project> firstPage = webTestClient.get().uri("/project?limit=2")
+                .accept(APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.LINK)
+                .expectBodyList(Project.class)
+                .returnResult()
+                .getResponseBody();
+
+        // then
+        assertNotNull(firstPage);
+        assertEquals(2, firstPage.size());
+        webTestClient.get().uri("/project?limit=2&after={after}", firstPage.get(1).projectId())
+                .accept(APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.LINK)
+                .expectBodyList(Project.class).hasSize(1);
+    }
+
+    @Test
+    void exportProjectsAsStream() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            createProject("Test Name " + i);
+        }
+
+        // when
+        final List<Project> exportedProjects = webTestClient.get().uri("/project/_export")
+                .accept(APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Project.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        // then
+        assertNotNull(exportedProjects);
+        assertEquals(3, exportedProjects.size());
+    }
+
+    @Test
+    void rejectOutdatedUpdate() {
+        // given
+        final Project createdProject = createProject("Test Name");
+        final Project changedProject = new Project(createdProject.projectId(), "Changed Name", "Test Description", emptyList(), null, null);
+
+        // when / then
+        webTestClient.post().uri("/project/{id}", createdProject.projectId())
+                .header(HttpHeaders.IF_MATCH, "\"5\"")
+                .bodyValue(changedProject)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        webTestClient.post().uri("/project/{id}", createdProject.projectId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(changedProject)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1-json\"");
+    }
+
+    @Test
+    void updateProjectReturnsStoredMembers() {
+        // given
+        final Project createdProject = createProject("Test Name");
+        final ProjectMember member = new ProjectMember(null, "Test First Name", "Test Last Name", "test@example.com", "they/their",
+                "Test Member Description", "images/test.png");
+        final Project changedProject = new Project(createdProject.projectId(), "Changed Name", "Test Description", List.of(member), null, null);
+
+        // when
+        final Project updatedProject = webTestClient.post().uri("/project/{id}", createdProject.projectId())
+                .bodyValue(changedProject)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Project.class)
+                .returnResult()
+                .getResponseBody();
+
+        // then
+        assertNotNull(updatedProject);
+        assertEquals("Changed Name", updatedProject.name());
+        assertEquals(emptyList(), updatedProject.projectMembers());
+    }
+
+    @Test
+    void rejectInvalidProject() {
+        // given
+        final Project invalidProject = new Project(null, "T", "Test Description", emptyList(), null, null);
+
+        // when / then
+        webTestClient.post().uri("/project")
+                .bodyValue(invalidProject)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private Project createProject(final String name) {
+        return webTestClient.post().uri("/project")
+                .bodyValue(new Project(null, name, "Test Description", emptyList(), null, null))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Project.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -0,0 +1,141 @@
+package de.tfdw.example.integration;
+
+import de.tfdw.example.dto.Project;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against two independent databases, the second standing in for a replica. Rows written only to the
+ * replica show which of the two answered a request.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Testcontainers
+public class ReplicaRoutingIntegrationTest {
+
+    private static final UUID REPLICA_ONLY_PROJECT_ID = UUID.fromString("4c1f1d3e-5a0b-4f43-9d53-3f6b1a2f7c10");
+
+    @Container
+    @SuppressWarnings("rawtypes")
+    static final PostgreSQLContainer postgresqlContainer = new PostgreSQLContainer("postgres:14.5")
+            .withDatabaseName("testDatabase")
+            .withUsername("testUser")
+            .withPassword("testPassword");
+
+    @Container
+    @SuppressWarnings("rawtypes")
+    static final PostgreSQLContainer replicaContainer = new PostgreSQLContainer("postgres:14.5")
+            .withDatabaseName("testDatabase")
+            .withUsername("testUser")
+            .withPassword("testPassword");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        postgresqlContainer.start();
+        replicaContainer.start();
+        registry.add("spring.datasource.url", postgresqlContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresqlContainer::getUsername);
+        registry.add("spring.datasource.password", postgresqlContainer::getPassword);
+        registry.add("project.datasource.replicas.enabled", () -> "true");
+        registry.add("project.datasource.replicas.urls[0]", replicaContainer::getJdbcUrl);
+        registry.add("project.datasource.replicas.health-check-interval", () -> "200ms");
+    }
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        final DriverManagerDataSource replica = new DriverManagerDataSource(
+                replicaContainer.getJdbcUrl(), replicaContainer.getUsername(), replicaContainer.getPassword());
+        Flyway.configure().dataSource(replica).locations("classpath:db/migration").load().migrate();
+        new JdbcTemplate(replica).update("insert into project (id, name, description) values (?, ?, ?) on conflict do nothing",
+                REPLICA_ONLY_PROJECT_ID, "Replica Name", "Replica Description");
+
+        // replicas start unhealthy and are used once their first health check passed
+        for (int attempt = 0; attempt < 50 && !listsProject(REPLICA_ONLY_PROJECT_ID, null); attempt++) {
+            Thread.sleep(100);
+        }
+    }
+
+    @Test
+    void readProjectListFromReplica() {
+        // then
+        assertTrue(listsProject(REPLICA_ONLY_PROJECT_ID, null));
+    }
+
+    @Test
+    void readOwnWritesFromPrimary() {
+        // given
+        final Project projectToCreate = new Project(null, "Test Name", "Test Description", emptyList(), null, null);
+
+        // when
+        final ResponseEntity<Project> responseEntity = testRestTemplate.postForEntity(URI.create("/project"), projectToCreate, Project.class);
+
+        // then
+        assertEquals(HttpStatus.CREATED, responseEntity.getStatusCode());
+        assertNotNull(responseEntity.getBody());
+        final String cookie = responseEntity.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        assertNotNull(cookie);
+        final UUID createdId = responseEntity.getBody().projectId();
+        assertTrue(listsProject(createdId, cookie.substring(0, cookie.indexOf(';'))));
+        assertFalse(listsProject(createdId, null));
+    }
+
+    @Test
+    void exportOwnWritesFromPrimary() {
+        // given
+        final Project projectToCreate = new Project(null, "Test Name", "Test Description", emptyList(), null, null);
+        final ResponseEntity<Project> responseEntity = testRestTemplate.postForEntity(URI.create("/project"), projectToCreate, Project.class);
+        final String cookie = responseEntity.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        assertNotNull(cookie);
+        assertNotNull(responseEntity.getBody());
+        final RequestEntity<Void> request = RequestEntity.get(URI.create("/project/_export"))
+                .header(HttpHeaders.COOKIE, cookie.substring(0, cookie.indexOf(';')))
+                .build();
+
+        // when
+        final ResponseEntity<String> exportResponse = testRestTemplate.exchange(request, String.class);
+
+        // then
+        assertEquals(HttpStatus.OK, exportResponse.getStatusCode());
+        assertNotNull(exportResponse.getBody());
+        assertTrue(exportResponse.getBody().contains(responseEntity.getBody().projectId().toString()));
+    }
+
+    private boolean listsProject(final UUID projectId, final String cookie) {
+        final RequestEntity.HeadersBuilder<?> request = RequestEntity.get(URI.create("/project"));
+        if (Objects.nonNull(cookie)) {
+            request.header(HttpHeaders.COOKIE, cookie);
+        }
+        final ResponseEntity<Project[]> responseEntity = testRestTemplate.exchange(request.build(), Project[].class);
+        return Arrays.stream(responseEntity.getBody()).anyMatch(project -> projectId.equals(project.projectId()));
+    }
+}
@@ -0,0 +1,239 @@
+package de.tfdw.example.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.tfdw.example.dto.BulkItemResult;
+import de.tfdw.example.dto.Project;
+import de.tfdw.example.dto.ProjectMember;
+import de.tfdw.example.model.ProjectEntity;
+import de.tfdw.example.repository.ProjectEntityRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static de.tfdw.example.configuration.CacheConfig.PROJECTS;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+class ProjectBulkServiceTest {
+
+    private static final UUID PROJECT_ID = UUID.fromString("093e047e-b4ab-4053-87db-46c795426191");
+
+    private AutoCloseable autoCloseable;
+    @Mock
+    private ProjectEntityRepository mockedProjectEntityRepository;
+    @Mock
+    private ProjectMemberService mockedProjectMemberService;
+    @Mock
+    private PlatformTransactionManager mockedTransactionManager;
+    @Mock
+    private ApplicationEventPublisher mockedEventPublisher;
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(PROJECTS);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private ProjectBulkService projectBulkService;
+
+    @BeforeEach
+    void setUp() {
+        autoCloseable = openMocks(this);
+        projectBulkService = new ProjectBulkService(mockedProjectEntityRepository, mockedProjectMemberService, validator, mockedTransactionManager, cacheManager, mockedEventPublisher, 2);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        autoCloseable.close();
+    }
+
+    @Test
+    void shouldCreateAndUpdateProjectsInChunks() {
+        // given
+        final ProjectEntity existingEntity = new ProjectEntity(PROJECT_ID, "Old Name", "Old Description", emptyList());
+        when(mockedProjectEntityRepository.findAllById(List.of(PROJECT_ID))).thenReturn(List.of(existingEntity));
+        cacheManager.getCache(PROJECTS).put(PROJECT_ID, new Project(PROJECT_ID, "Old Name", "Old Description", emptyList(), null, null));
+        final List<Project> projects = List.of(
+                new Project(null, "First Name", "First Description", emptyList(), null, null),
+                new Project(PROJECT_ID, "New Name", "New Description", emptyList(), null, null),
+                new Project(null, "Third Name", "Third Description", emptyList(), null, null)
+        );
+
+        // when
+        final List<BulkItemResult> results = projectBulkService.upsertProjects(projects.iterator());
+
+        // then
+        assertEquals(3, results.size());
+        assertEquals(new BulkItemResult(1, PROJECT_ID, 200, null), results.get(1));
+        assertEquals(201, results.get(0).status());
+        assertEquals(201, results.get(2).status());
+        assertEquals("New Name", existingEntity.getName());
+        assertEquals("New Description", existingEntity.getDescription());
+        assertNull(cacheManager.getCache(PROJECTS).get(PROJECT_ID));
+        verify(mockedProjectEntityRepository, times(2)).saveAll(anyIterable());
+        verify(mockedProjectMemberService, times(2)).findReferencedMembers(anyCollection());
+    }
+
+    @Test
+    void shouldReportInvalidAndUnknownProjectsPerItem() {
+        // given
+        when(mockedProjectEntityRepository.findAllById(List.of(PROJECT_ID))).thenReturn(emptyList());
+        final List<Project> projects = List.of(
+                new Project(null, "X", "Test Description", emptyList(), null, null),
+                new Project(PROJECT_ID, "Test Name", "Test Description", emptyList(), null, null)
+        );
+
+        // when
+        final List<BulkItemResult> results = projectBulkService.upsertProjects(projects.iterator());
+
+        // then
+        assertEquals(2, results.size());
+        assertEquals(406, results.get(0).status());
+        assertNotNull(results.get(0).message());
+        assertTrue(results.get(0).message().startsWith("name"));
+        assertEquals(new BulkItemResult(1, PROJECT_ID, 404, null), results.get(1));
+    }
+
+    @Test
+    void shouldFailOnlyTheChunkThatCouldNotBePersisted() {
+        // given
+        when(mockedProjectEntityRepository.findAllById(List.of(PROJECT_ID)))
+                .thenThrow(new DataIntegrityViolationException("Broken chunk"));
+        final List<Project> projects = List.of(
+                new Project(null, "First Name", "First Description", emptyList(), null, null),
+                new Project(PROJECT_ID, "Second Name", "Second Description", emptyList(), null, null),
+                new Project(null, "Third Name", "Third Description", emptyList(), null, null)
+        );
+
+        // when
+        final List<BulkItemResult> results = projectBulkService.upsertProjects(projects.iterator());
+
+        // then
+        assertEquals(500, results.get(0).status());
+        assertEquals(500, results.get(1).status());
+        assertEquals(201, results.get(2).status());
+        assertFalse(results.get(0).message().contains("Broken chunk"));
+    }
+
+    @Test
+    void shouldKeepItemsRejectedBeforeTheChunkFailed() {
+        // given
+        when(mockedProjectEntityRepository.findAllById(List.of(PROJECT_ID))).thenReturn(emptyList());
+        doThrow(new TransactionSystemException("Commit failed")).when(mockedTransactionManager).commit(any());
+        final List<Project> projects = List.of(
+                new Project(null, "First Name", "First Description", emptyList(), null, null),
+                new Project(PROJECT_ID, "Second Name", "Second Description", emptyList(), null, null)
+        );
+
+        // when
+        final List<BulkItemResult> results = projectBulkService.upsertProjects(projects.iterator());
+
+        // then
+        assertEquals(2, results.size());
+        assertEquals(500, results.get(0).status());
+        assertNull(results.get(0).projectId());
+        assertEquals(new BulkItemResult(1, PROJECT_ID, 404, null), results.get(1));
+    }
+
+    @Test
+    void shouldReportNullProjectsAndMembersPerItem() {
+        // given
+        final List<Project> projects = Arrays.asList(
+                null,
+                new Project(null, "Test Name", "Test Description", Arrays.asList((ProjectMember) null), null, null),
+                new Project(null, "Third Name", "Third Description", emptyList(), null, null)
+        );
+
+        // when
+        final List<BulkItemResult> results = projectBulkService.upsertProjects(projects.iterator());
+
+        // then
+        assertEquals(new BulkItemResult(0, null, 406, "Project must not be null"), results.get(0));
+        assertEquals(new BulkItemResult(1, null, 406, "projectMembers must not contain null"), results.get(1));
+        assertEquals(201, results.get(2).status());
+    }
+
+    @Test
+    void shouldSkipItemsThatCannotBeMapped() throws Exception {
+        // given
+        final MappingIterator<Project> projects = objectMapper.readerFor(Project.class).readValues("""
+                {"name": "First Name", "description": "First Description"}
+                {"projectId": "not a uuid", "name": "Second Name", "description": "Second Description"}
+                {"name": "Third Name", "description": "Third Description"}
+                """);
+
+        // when
+        final List<BulkItemResult> results = projectBulkService.upsertProjects(projects);
+
+        // then
+        assertEquals(3, results.size());
+        assertEquals(201, results.get(0).status());
+        assertEquals(406, results.get(1).status());
+        assertNotNull(results.get(1).message());
+        assertEquals(201, results.get(2).status());
+    }
+
+    @Test
+    void shouldStopReadingAtMalformedJson() throws Exception {
+        // given
+        final MappingIterator<Project> projects = objectMapper.readerFor(Project.class).readValues("""
+                {"name": "First Name", "description": "First Description"}
+                {"name" "Second Name"}
+                {"name": "Third Name", "description": "Third Description"}
+                """);
+
+        // when
+        final List<BulkItemResult> results = projectBulkService.upsertProjects(projects);
+
+        // then
+        assertEquals(2, results.size());
+        assertEquals(201, results.get(0).status());
+        assertEquals(406, results.get(1).status());
+        assertTrue(results.get(1).message().endsWith("the remaining items were not read"));
+    }
+
+    @Test
+    void shouldDeleteExistingProjects() {
+        // given
+        final UUID unknownId = UUID.randomUUID();
+        when(mockedProjectEntityRepository.deleteProjects(List.of(PROJECT_ID, unknownId))).thenReturn(List.of(PROJECT_ID));
+
+        // when
+        final List<BulkItemResult> results = projectBulkService.deleteProjects(List.of(PROJECT_ID, unknownId));
+
+        // then
+        assertEquals(List.of(
+                new BulkItemResult(0, PROJECT_ID, 200, null),
+                new BulkItemResult(1, unknownId, 404, null)
+        ), results);
+        verify(mockedProjectEntityRepository, never()).findAllById(anyIterable());
+    }
+}
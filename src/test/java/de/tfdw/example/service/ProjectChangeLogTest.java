@@ -0,0 +1,116 @@
+package de.tfdw.example.service;
+
+import de.tfdw.example.dto.ProjectChange;
+import de.tfdw.example.repository.ProjectChangeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+class ProjectChangeLogTest {
+
+    private static final UUID PROJECT_ID = UUID.fromString("093e047e-b4ab-4053-87db-46c795426191");
+
+    private AutoCloseable autoCloseable;
+    @Mock
+    private ProjectChangeRepository mockedProjectChangeRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        autoCloseable = openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        autoCloseable.close();
+    }
+
+    @Test
+    void shouldAppendQueuedChangesBeforeStopping() {
+        // given
+        final ProjectChangeLog projectChangeLog = new ProjectChangeLog(mockedProjectChangeRepository, meterRegistry,
+                10, 10, 3, Duration.ofMillis(1), Duration.ofSeconds(5));
+        final ProjectChange change = ProjectChange.updated(PROJECT_ID, 2L);
+        projectChangeLog.start();
+
+        // when
+        projectChangeLog.onProjectChange(change);
+        projectChangeLog.stop();
+
+        // then
+        verify(mockedProjectChangeRepository).appendAll(List.of(change));
+        assertEquals(1.0, meterRegistry.counter("project.changes.written").count());
+    }
+
+    @Test
+    void shouldDropChangesWhenTheQueueIsFull() {
+        // given
+        final ProjectChangeLog projectChangeLog = new ProjectChangeLog(mockedProjectChangeRepository, meterRegistry,
+                1, 10, 3, Duration.ofMillis(1), Duration.ofSeconds(5));
+
+        // when
+        projectChangeLog.onProjectChange(ProjectChange.created(PROJECT_ID, 0L));
+        projectChangeLog.onProjectChange(ProjectChange.deleted(PROJECT_ID, 0L));
+
+        // then
+        assertEquals(1.0, meterRegistry.counter("project.changes.dropped").count());
+        assertEquals(1.0, meterRegistry.get("project.changes.queue.size").gauge().value());
+        verify(mockedProjectChangeRepository, never()).appendAll(anyList());
+    }
+
+    @Test
+    void shouldRetryAFailedBatch() {
+        // given
+        final ProjectChangeLog projectChangeLog = new ProjectChangeLog(mockedProjectChangeRepository, meterRegistry,
+                10, 10, 3, Duration.ofMillis(1), Duration.ofSeconds(5));
+        final ProjectChange change = ProjectChange.updated(PROJECT_ID, 2L);
+        doThrow(new TransientDataAccessResourceException("connection lost"))
+                .doNothing()
+                .when(mockedProjectChangeRepository).appendAll(List.of(change));
+        projectChangeLog.start();
+
+        // when
+        projectChangeLog.onProjectChange(change);
+        projectChangeLog.stop();
+
+        // then
+        verify(mockedProjectChangeRepository, times(2)).appendAll(List.of(change));
+        assertEquals(1.0, meterRegistry.counter("project.changes.written").count());
+        assertEquals(0.0, meterRegistry.counter("project.changes.failed").count());
+    }
+
+    @Test
+    void shouldCountChangesAsFailedOnceAllAttemptsFailed() {
+        // given
+        final ProjectChangeLog projectChangeLog = new ProjectChangeLog(mockedProjectChangeRepository, meterRegistry,
+                10, 10, 3, Duration.ofMillis(1), Duration.ofSeconds(5));
+        final ProjectChange change = ProjectChange.updated(PROJECT_ID, 2L);
+        doThrow(new TransientDataAccessResourceException("connection lost"))
+                .when(mockedProjectChangeRepository).appendAll(List.of(change));
+        projectChangeLog.start();
+
+        // when
+        projectChangeLog.onProjectChange(change);
+        projectChangeLog.stop();
+
+        // then
+        verify(mockedProjectChangeRepository, times(3)).appendAll(List.of(change));
+        assertEquals(1.0, meterRegistry.counter("project.changes.failed").count());
+    }
+}
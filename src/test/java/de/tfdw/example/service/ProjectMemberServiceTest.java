@@ -0,0 +1,260 @@
+package de.tfdw.example.service;
+
+import de.tfdw.example.dto.ProjectChange;
+import de.tfdw.example.dto.ProjectMapper;
+import de.tfdw.example.dto.ProjectMember;
+import de.tfdw.example.dto.ProjectVersion;
+import de.tfdw.example.model.ProjectMemberEntity;
+import de.tfdw.example.repository.ProjectEntityRepository;
+import de.tfdw.example.repository.ProjectMemberEntityRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static de.tfdw.example.configuration.CacheConfig.PROJECTS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+import static org.springframework.http.HttpStatus.NOT_ACCEPTABLE;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+class ProjectMemberServiceTest {
+
+    private static final UUID PROJECT_ID = UUID.fromString("093e047e-b4ab-4053-87db-46c795426191");
+
+    private AutoCloseable autoCloseable;
+    @Mock
+    private ProjectEntityRepository mockedProjectEntityRepository;
+    @Mock
+    private ProjectMemberEntityRepository mockedProjectMemberEntityRepository;
+    @Mock
+    private ApplicationEventPublisher mockedEventPublisher;
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(PROJECTS);
+
+    private final ProjectMemberEntity existingMember = new ProjectMemberEntity(
+            "Test First Name", "Test Last Name", "test@example.com", "they/their", "Test Member Description", "images/test.png");
+
+    private ProjectMemberService projectMemberService;
+
+    @BeforeEach
+    void setUp() {
+        autoCloseable = openMocks(this);
+        projectMemberService = new ProjectMemberService(mockedProjectEntityRepository, mockedProjectMemberEntityRepository,
+                new ProjectMapper(), validator, mockedEventPublisher, cacheManager);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        autoCloseable.close();
+    }
+
+    @Test
+    void shouldCreateNewAndReferToExistingMembers() {
+        // given
+        when(mockedProjectMemberEntityRepository.findAllById(Set.of(existingMember.getId()))).thenReturn(List.of(existingMember));
+        final List<ProjectMember> projectMembers = List.of(
+                member(null, "New First Name"),
+                member(existingMember.getId(), "Ignored First Name")
+        );
+
+        // when
+        final Set<ProjectMemberEntity> resolvedMembers = projectMemberService.resolveProjectMembers(projectMembers);
+
+        // then
+        final List<ProjectMemberEntity> members = List.copyOf(resolvedMembers);
+        assertEquals(2, members.size());
+        assertTrue(members.get(0).isNew());
+        assertEquals("New First Name", members.get(0).getFirstName());
+        assertSame(existingMember, members.get(1));
+        assertEquals("Test First Name", members.get(1).getFirstName());
+    }
+
+    @Test
+    void shouldRejectUnknownMembers() {
+        // given
+        final UUID unknownId = UUID.randomUUID();
+        when(mockedProjectMemberEntityRepository.findAllById(Set.of(unknownId))).thenReturn(List.of());
+
+        // when
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> projectMemberService.resolveProjectMembers(List.of(member(unknownId, "Test First Name"))));
+
+        // then
+        assertEquals(NOT_ACCEPTABLE, exception.getStatusCode());
+    }
+
+    @Test
+    void shouldAddNewMemberToProject() {
+        // given
+        when(mockedProjectEntityRepository.touchProject(PROJECT_ID)).thenReturn(Optional.of(new ProjectVersion(3L, Instant.now())));
+
+        // when
+        final ProjectMember addedMember = projectMemberService.addProjectMember(PROJECT_ID, member(null, "New First Name"));
+
+        // then
+        assertEquals("New First Name", addedMember.firstName());
+        verify(mockedProjectMemberEntityRepository).save(any(ProjectMemberEntity.class));
+        verify(mockedProjectMemberEntityRepository).addToProject(PROJECT_ID, addedMember.projectMemberId());
+        verify(mockedEventPublisher).publishEvent(any(ProjectChange.class));
+    }
+
+    @Test
+    void shouldNotAddMemberToUnknownProject() {
+        // given
+        when(mockedProjectEntityRepository.touchProject(PROJECT_ID)).thenReturn(Optional.empty());
+
+        // when
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> projectMemberService.addProjectMember(PROJECT_ID, member(null, "New First Name")));
+
+        // then
+        assertEquals(NOT_FOUND, exception.getStatusCode());
+        verify(mockedProjectMemberEntityRepository, never()).addToProject(any(), any());
+    }
+
+    @Test
+    void shouldApplyOnlyGivenFieldsOfMember() {
+        // given
+        when(mockedProjectMemberEntityRepository.findByProjectIdAndId(PROJECT_ID, existingMember.getId())).thenReturn(Optional.of(existingMember));
+        when(mockedProjectEntityRepository.touchProjectsOfMember(existingMember.getId())).thenReturn(List.of(ProjectChange.updated(PROJECT_ID, 4L)));
+        final Map<String, Object> patch = Map.of("lastName", "Changed Last Name");
+        final UUID otherProjectId = UUID.randomUUID();
+        final Cache projectCache = cacheManager.getCache(PROJECTS);
+        projectCache.put(PROJECT_ID, "cached project");
+        projectCache.put(otherProjectId, "other cached project");
+
+        // when
+        final ProjectMember updatedMember = projectMemberService.updateProjectMember(PROJECT_ID, existingMember.getId(), patch);
+
+        // then
+        assertEquals("Test First Name", updatedMember.firstName());
+        assertEquals("Changed Last Name", updatedMember.lastName());
+        assertEquals("Changed Last Name", existingMember.getLastName());
+        verify(mockedEventPublisher).publishEvent(any(ProjectChange.class));
+        assertNull(projectCache.get(PROJECT_ID));
+        assertNotNull(projectCache.get(otherProjectId));
+    }
+
+    @Test
+    void shouldClearFieldsSetToNull() {
+        // given
+        when(mockedProjectMemberEntityRepository.findByProjectIdAndId(PROJECT_ID, existingMember.getId())).thenReturn(Optional.of(existingMember));
+        when(mockedProjectEntityRepository.touchProjectsOfMember(existingMember.getId())).thenReturn(List.of(ProjectChange.updated(PROJECT_ID, 4L)));
+        final Map<String, Object> patch = new HashMap<>();
+        patch.put("pronouns", null);
+        patch.put("description", null);
+
+        // when
+        final ProjectMember updatedMember = projectMemberService.updateProjectMember(PROJECT_ID, existingMember.getId(), patch);
+
+        // then
+        assertNull(updatedMember.pronouns());
+        assertNull(updatedMember.description());
+        assertEquals("Test Last Name", updatedMember.lastName());
+    }
+
+    @Test
+    void shouldRejectClearingRequiredFields() {
+        // given
+        when(mockedProjectMemberEntityRepository.findByProjectIdAndId(PROJECT_ID, existingMember.getId())).thenReturn(Optional.of(existingMember));
+        final Map<String, Object> patch = new HashMap<>();
+        patch.put("imageReference", null);
+
+        // when
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> projectMemberService.updateProjectMember(PROJECT_ID, existingMember.getId(), patch));
+
+        // then
+        assertEquals(NOT_ACCEPTABLE, exception.getStatusCode());
+        verify(mockedProjectEntityRepository, never()).touchProjectsOfMember(any());
+    }
+
+    @Test
+    void shouldRejectUnknownMemberFields() {
+        // given
+        when(mockedProjectMemberEntityRepository.findByProjectIdAndId(PROJECT_ID, existingMember.getId())).thenReturn(Optional.of(existingMember));
+
+        // when
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> projectMemberService.updateProjectMember(PROJECT_ID, existingMember.getId(), Map.of("nickname", "Test")));
+
+        // then
+        assertEquals(NOT_ACCEPTABLE, exception.getStatusCode());
+        verify(mockedProjectEntityRepository, never()).touchProjectsOfMember(any());
+    }
+
+    @Test
+    void shouldRejectInvalidMemberChanges() {
+        // given
+        when(mockedProjectMemberEntityRepository.findByProjectIdAndId(PROJECT_ID, existingMember.getId())).thenReturn(Optional.of(existingMember));
+        final Map<String, Object> patch = Map.of("email", "not an email");
+
+        // when
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> projectMemberService.updateProjectMember(PROJECT_ID, existingMember.getId(), patch));
+
+        // then
+        assertEquals(NOT_ACCEPTABLE, exception.getStatusCode());
+        verify(mockedProjectEntityRepository, never()).touchProjectsOfMember(any());
+    }
+
+    @Test
+    void shouldRemoveMemberAndDeleteItIfUnassigned() {
+        // given
+        when(mockedProjectEntityRepository.touchProject(PROJECT_ID)).thenReturn(Optional.of(new ProjectVersion(3L, Instant.now())));
+        when(mockedProjectMemberEntityRepository.removeFromProject(PROJECT_ID, existingMember.getId())).thenReturn(1);
+
+        // when
+        projectMemberService.removeProjectMember(PROJECT_ID, existingMember.getId());
+
+        // then
+        verify(mockedProjectMemberEntityRepository).deleteIfUnassigned(existingMember.getId());
+    }
+
+    @Test
+    void shouldThrow404IfMemberIsNotAssigned() {
+        // given
+        when(mockedProjectEntityRepository.touchProject(PROJECT_ID)).thenReturn(Optional.of(new ProjectVersion(3L, Instant.now())));
+        when(mockedProjectMemberEntityRepository.removeFromProject(PROJECT_ID, existingMember.getId())).thenReturn(0);
+
+        // when
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> projectMemberService.removeProjectMember(PROJECT_ID, existingMember.getId()));
+
+        // then
+        assertEquals(NOT_FOUND, exception.getStatusCode());
+        verify(mockedProjectMemberEntityRepository, never()).deleteIfUnassigned(any());
+    }
+
+    private static ProjectMember member(final UUID projectMemberId, final String firstName) {
+        return new ProjectMember(projectMemberId, firstName, "Test Last Name", "test@example.com", "they/their",
+                "Test Member Description", "images/test.png");
+    }
+}
@@ -0,0 +1,210 @@
+package de.tfdw.example.service;
+
+import de.tfdw.example.configuration.CacheConfig;
+import de.tfdw.example.dto.Project;
+import de.tfdw.example.dto.ProjectMapper;
+import de.tfdw.example.model.ProjectEntity;
+import de.tfdw.example.repository.ProjectEntityRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static de.tfdw.example.configuration.CacheConfig.PROJECTS;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+@SpringBootTest(classes = {ProjectService.class, CacheConfig.class, SimpleMeterRegistry.class},
+        properties = "project.single-flight.wait-timeout=1s")
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+class ProjectServiceCacheTest {
+
+    private static final UUID PROJECT_ID = UUID.fromString("093e047e-b4ab-4053-87db-46c795426191");
+
+    @MockBean
+    private ProjectEntityRepository mockedProjectEntityRepository;
+
+    @MockBean
+    private ProjectMemberService mockedProjectMemberService;
+
+    @MockBean
+    private ProjectMapper mockedProjectMapper;
+
+    @MockBean
+    private Validator mockedValidator;
+
+    @MockBean
+    private PlatformTransactionManager mockedTransactionManager;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ProjectEntity projectEntity = new ProjectEntity(PROJECT_ID, "Test Name", "Test Description", emptyList());
+
+    private final Project project = new Project(PROJECT_ID, "Test Name", "Test Description", emptyList(), null, null);
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(PROJECTS).clear();
+        when(mockedProjectEntityRepository.findById(PROJECT_ID)).thenReturn(Optional.of(projectEntity));
+        when(mockedProjectMapper.mapFromProjectEntity(projectEntity)).thenReturn(project);
+    }
+
+    @Test
+    void shouldServeRepeatedGetsFromCache() {
+        // when
+        final Project firstProject = projectService.getProject(PROJECT_ID);
+        final Project secondProject = projectService.getProject(PROJECT_ID);
+
+        // then
+        assertEquals(project, firstProject);
+        assertEquals(project, secondProject);
+        verify(mockedProjectEntityRepository, times(1)).findById(PROJECT_ID);
+    }
+
+    @Test
+    void shouldShareOneLoadBetweenConcurrentMisses() throws Exception {
+        // given
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch releaseLoad = new CountDownLatch(1);
+        when(mockedProjectEntityRepository.findById(PROJECT_ID)).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            assertTrue(releaseLoad.await(5, TimeUnit.SECONDS));
+            return Optional.of(projectEntity);
+        });
+
+        // when
+        final List<Future<Project>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(executor.submit(() -> projectService.getProject(PROJECT_ID)));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 10; i++) {
+                results.add(executor.submit(() -> projectService.getProject(PROJECT_ID)));
+            }
+            releaseLoad.countDown();
+        }
+
+        // then
+        for (final Future<Project> result : results) {
+            assertEquals(project, result.get());
+        }
+        verify(mockedProjectEntityRepository, times(1)).findById(PROJECT_ID);
+    }
+
+    @Test
+    void shouldStopWaitingForASlowConcurrentLoad() throws Exception {
+        // given
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch releaseLoad = new CountDownLatch(1);
+        when(mockedProjectEntityRepository.findById(PROJECT_ID)).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            assertTrue(releaseLoad.await(5, TimeUnit.SECONDS));
+            return Optional.of(projectEntity);
+        });
+        final double coalescedBefore = callCount("coalesced");
+        final double timedOutBefore = callCount("timed-out");
+
+        // when
+        final Future<Project> load;
+        final ResponseStatusException exception;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            load = executor.submit(() -> projectService.getProject(PROJECT_ID));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            exception = assertThrows(ResponseStatusException.class, () -> projectService.getProject(PROJECT_ID));
+            releaseLoad.countDown();
+        }
+
+        // then
+        assertEquals(SERVICE_UNAVAILABLE, exception.getStatusCode());
+        assertEquals(project, load.get());
+        assertEquals(coalescedBefore + 1, callCount("coalesced"));
+        assertEquals(timedOutBefore + 1, callCount("timed-out"));
+        verify(mockedProjectEntityRepository, times(1)).findById(PROJECT_ID);
+    }
+
+    @Test
+    void shouldPopulateCacheOnCreate() {
+        // given
+        when(mockedProjectEntityRepository.save(any(ProjectEntity.class))).thenReturn(projectEntity);
+
+        // when
+        projectService.createProject(new Project(null, "Test Name", "Test Description", emptyList(), null, null));
+        final Project cachedProject = projectService.getProject(PROJECT_ID);
+
+        // then
+        assertEquals(project, cachedProject);
+        verify(mockedProjectEntityRepository, times(0)).findById(PROJECT_ID);
+    }
+
+    @Test
+    void shouldPopulateCacheOnlyAfterCommit() {
+        // given
+        when(mockedProjectEntityRepository.save(any(ProjectEntity.class))).thenReturn(projectEntity);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when
+            projectService.createProject(new Project(null, "Test Name", "Test Description", emptyList(), null, null));
+            final Object cachedBeforeCommit = cacheManager.getCache(PROJECTS).get(PROJECT_ID);
+            TransactionSynchronizationUtils.triggerAfterCommit();
+
+            // then
+            assertNull(cachedBeforeCommit);
+            assertNotNull(cacheManager.getCache(PROJECTS).get(PROJECT_ID));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldEvictCacheOnDelete() {
+        // given
+        projectService.getProject(PROJECT_ID);
+
+        // when
+        projectService.deleteProject(PROJECT_ID);
+        projectService.getProject(PROJECT_ID);
+
+        // then
+        verify(mockedProjectEntityRepository, times(3)).findById(PROJECT_ID);
+    }
+
+    private double callCount(final String outcome) {
+        return meterRegistry.get("project.single-flight.calls").tag("name", "project").tag("outcome", outcome).counter().count();
+    }
+}
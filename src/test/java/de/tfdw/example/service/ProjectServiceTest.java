@@ -1,16 +1,34 @@
 package de.tfdw.example.service;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.tfdw.example.dto.CursorPage;
 import de.tfdw.example.dto.Project;
+import de.tfdw.example.dto.ProjectBatch;
 import de.tfdw.example.dto.ProjectMapper;
+import de.tfdw.example.dto.ProjectMember;
+import de.tfdw.example.dto.ProjectSearchHit;
+import de.tfdw.example.dto.ProjectSummary;
+import de.tfdw.example.dto.ProjectVersion;
 import de.tfdw.example.model.ProjectEntity;
 import de.tfdw.example.repository.ProjectEntityRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -18,6 +36,7 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -26,6 +45,9 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.openMocks;
+import static org.springframework.http.HttpStatus.NOT_ACCEPTABLE;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
 
 class ProjectServiceTest {
 
@@ -35,14 +57,25 @@ class ProjectServiceTest {
     @Mock
     private ProjectEntityRepository mockedProjectEntityRepository;
     @Mock
+    private ProjectMemberService mockedProjectMemberService;
+    @Mock
     private ProjectMapper mockedProjectMapper;
+    @Mock
+    private ApplicationEventPublisher mockedEventPublisher;
+    @Mock
+    private PlatformTransactionManager mockedTransactionManager;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
 
     private ProjectService projectService;
 
     @BeforeEach
     void setUp() {
         autoCloseable = openMocks(this);
-        projectService = new ProjectService(mockedProjectEntityRepository, mockedProjectMapper);
+        projectService = new ProjectService(mockedProjectEntityRepository, mockedProjectMemberService, mockedProjectMapper, validator,
+                mockedEventPublisher, mockedTransactionManager, Caffeine.newBuilder().buildAsync(), meterRegistry, Duration.ofSeconds(5));
     }
 
     @AfterEach
@@ -56,29 +89,123 @@ class ProjectServiceTest {
         final ProjectEntity projectEntity = mock(ProjectEntity.class);
         final Project project = mock(Project.class);
 
-        when(mockedProjectEntityRepository.findAll()).thenReturn(singletonList(projectEntity));
+        when(mockedProjectEntityRepository.findPage(null, null, null, 11)).thenReturn(singletonList(projectEntity));
         when(mockedProjectMapper.mapFromProjectEntity(projectEntity)).thenReturn(project);
 
         // when
-        final List<Project> retrievedProject = projectService.listProjects();
+        final CursorPage<Project> retrievedPage = projectService.listProjects(null, null, null, 10);
 
         // then
-        assertArrayEquals(singletonList(project).toArray(), retrievedProject.toArray());
-        verify(mockedProjectEntityRepository).findAll();
+        assertArrayEquals(singletonList(project).toArray(), retrievedPage.items().toArray());
+        assertNull(retrievedPage.nextCursor());
+        verify(mockedProjectEntityRepository).findPage(null, null, null, 11);
         verify(mockedProjectMapper).mapFromProjectEntity(projectEntity);
     }
 
     @Test
     void shouldReturnEmptyListIfNoneAreAvailable() {
         // given
-        when(mockedProjectEntityRepository.findAll()).thenReturn(emptyList());
+        when(mockedProjectEntityRepository.findPage(null, null, null, 11)).thenReturn(emptyList());
 
         // when
-        final List<Project> retrievedProject = projectService.listProjects();
+        final CursorPage<Project> retrievedPage = projectService.listProjects(null, null, null, 10);
 
         // then
-        assertEquals(0, retrievedProject.size());
-        verify(mockedProjectEntityRepository).findAll();
+        assertEquals(0, retrievedPage.items().size());
+        assertNull(retrievedPage.nextCursor());
+        verify(mockedProjectEntityRepository).findPage(null, null, null, 11);
+        verifyNoInteractions(mockedProjectMapper);
+    }
+
+    @Test
+    void shouldReturnCursorOfLastProjectIfMoreAreAvailable() {
+        // given
+        final UUID after = UUID.fromString(STATIC_UUID);
+        final ProjectEntity firstEntity = new ProjectEntity(UUID.randomUUID(), "First", "First Description", emptyList());
+        final ProjectEntity secondEntity = new ProjectEntity(UUID.randomUUID(), "Second", "Second Description", emptyList());
+        final ProjectEntity thirdEntity = new ProjectEntity(UUID.randomUUID(), "Third", "Third Description", emptyList());
+        final Project firstProject = mock(Project.class);
+        final Project secondProject = mock(Project.class);
+
+        when(mockedProjectEntityRepository.findPage(after, "Name", "Description", 3))
+                .thenReturn(List.of(firstEntity, secondEntity, thirdEntity));
+        when(mockedProjectMapper.mapFromProjectEntity(firstEntity)).thenReturn(firstProject);
+        when(mockedProjectMapper.mapFromProjectEntity(secondEntity)).thenReturn(secondProject);
+
+        // when
+        final CursorPage<Project> retrievedPage = projectService.listProjects(after, "Name", "Description", 2);
+
+        // then
+        assertEquals(List.of(firstProject, secondProject), retrievedPage.items());
+        assertEquals(secondEntity.getId().toString(), retrievedPage.nextCursor());
+        verify(mockedProjectEntityRepository).findPage(after, "Name", "Description", 3);
+        verify(mockedProjectMapper).mapFromProjectEntity(firstEntity);
+        verify(mockedProjectMapper).mapFromProjectEntity(secondEntity);
+        verifyNoMoreInteractions(mockedProjectMapper);
+    }
+
+    @Test
+    void shouldContinueSearchAfterRankAndIdOfLastHit() {
+        // given
+        final UUID firstId = UUID.randomUUID();
+        final UUID secondId = UUID.randomUUID();
+        when(mockedProjectEntityRepository.search("cupcake", 0.5f, firstId, 2)).thenReturn(List.of(
+                new ProjectSearchHit(secondId, "Second", "Second Description", 0.25f),
+                new ProjectSearchHit(UUID.randomUUID(), "Third", "Third Description", 0.125f)
+        ));
+
+        // when
+        final CursorPage<ProjectSummary> retrievedPage = projectService.searchProjects("cupcake", "0.5_" + firstId, 1);
+
+        // then
+        assertEquals(List.of(new ProjectSummary(secondId, "Second", "Second Description")), retrievedPage.items());
+        assertEquals("0.25_" + secondId, retrievedPage.nextCursor());
+    }
+
+    @Test
+    void shouldRejectBlankSearchQuery() {
+        // when / then
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> projectService.searchProjects(" ", null, 10));
+        assertEquals(NOT_ACCEPTABLE, exception.getStatusCode());
+        verifyNoInteractions(mockedProjectEntityRepository);
+    }
+
+    @Test
+    void shouldRejectMalformedSearchCursor() {
+        // when / then
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> projectService.searchProjects("cupcake", "not-a-cursor", 10));
+        assertEquals(NOT_ACCEPTABLE, exception.getStatusCode());
+        verifyNoInteractions(mockedProjectEntityRepository);
+    }
+
+    @Test
+    void shouldTimeFetchAndMapStagesOfList() {
+        // given
+        when(mockedProjectEntityRepository.findPage(null, null, null, 11)).thenReturn(emptyList());
+
+        // when
+        projectService.listProjects(null, null, null, 10);
+
+        // then
+        assertEquals(1, meterRegistry.get("project.list.stage").tags("view", "projects", "stage", "fetch").timer().count());
+        assertEquals(1, meterRegistry.get("project.list.stage").tags("view", "projects", "stage", "map").timer().count());
+    }
+
+    @Test
+    void shouldListSummariesWithoutMapping() {
+        // given
+        final ProjectSummary firstSummary = new ProjectSummary(UUID.randomUUID(), "First", "First Description");
+        final ProjectSummary secondSummary = new ProjectSummary(UUID.randomUUID(), "Second", "Second Description");
+
+        when(mockedProjectEntityRepository.findSummaryPage(null, null, null, 2)).thenReturn(List.of(firstSummary, secondSummary));
+
+        // when
+        final CursorPage<ProjectSummary> retrievedPage = projectService.listProjectSummaries(null, null, null, 1);
+
+        // then
+        assertEquals(List.of(firstSummary), retrievedPage.items());
+        assertEquals(firstSummary.projectId().toString(), retrievedPage.nextCursor());
+        verify(mockedProjectEntityRepository).findSummaryPage(null, null, null, 2);
         verifyNoInteractions(mockedProjectMapper);
     }
 
@@ -101,6 +228,29 @@ class ProjectServiceTest {
         verify(mockedProjectMapper).mapFromProjectEntity(projectEntity);
     }
 
+    @Test
+    void shouldReturnProjectsInRequestedOrderAndReportMissingOnes() {
+        // given
+        final ProjectEntity firstEntity = new ProjectEntity(UUID.randomUUID(), "First", "First Description", emptyList());
+        final ProjectEntity secondEntity = new ProjectEntity(UUID.randomUUID(), "Second", "Second Description", emptyList());
+        final Project firstProject = mock(Project.class);
+        final Project secondProject = mock(Project.class);
+        final UUID missingId = UUID.fromString(STATIC_UUID);
+        final List<UUID> requestedIds = List.of(secondEntity.getId(), missingId, firstEntity.getId(), secondEntity.getId());
+
+        when(mockedProjectEntityRepository.findAllWithMembersById(new LinkedHashSet<>(requestedIds))).thenReturn(List.of(firstEntity, secondEntity));
+        when(mockedProjectMapper.mapFromProjectEntity(firstEntity)).thenReturn(firstProject);
+        when(mockedProjectMapper.mapFromProjectEntity(secondEntity)).thenReturn(secondProject);
+
+        // when
+        final ProjectBatch batch = projectService.getProjects(requestedIds);
+
+        // then
+        assertEquals(List.of(secondProject, firstProject), batch.projects());
+        assertEquals(List.of(missingId), batch.missingProjectIds());
+        verify(mockedProjectEntityRepository).findAllWithMembersById(new LinkedHashSet<>(requestedIds));
+    }
+
     @Test
     void shouldThrowExceptionIfProjectIdIsNotKnown() {
         // given
@@ -122,7 +272,9 @@ class ProjectServiceTest {
                 null,
                 "Test Name",
                 "Test Description",
-                emptyList()
+                emptyList(),
+                null,
+                null
         );
         final ProjectEntity expectedEntityToSave = new ProjectEntity(
                 null,
@@ -135,7 +287,9 @@ class ProjectServiceTest {
                 projectId,
                 "Test Name",
                 "Test Description",
-                emptyList()
+                emptyList(),
+                null,
+                null
         );
         final ProjectEntity retrievedEntity = new ProjectEntity(
                 projectId,
@@ -160,60 +314,176 @@ class ProjectServiceTest {
     void shouldUpdateProject() {
         // given
         final UUID projectId = UUID.fromString(STATIC_UUID);
+        final Instant updatedAt = Instant.parse("2023-09-01T12:00:00Z");
+        final ProjectMember requestedMember = new ProjectMember(null, "Requested", "Member", null, null, null, null);
         final Project functionPayload = new Project(
                 projectId,
                 "Test Name",
                 "Test Description",
-                emptyList()
+                List.of(requestedMember),
+                null,
+                null
         );
-        final ProjectEntity expectedEntityToSave = new ProjectEntity(
+        final ProjectEntity storedEntity = new ProjectEntity(projectId, "Test Name", "Test Description", emptyList());
+        final Project storedProject = new Project(
                 projectId,
                 "Test Name",
                 "Test Description",
-                emptyList()
+                emptyList(),
+                4L,
+                updatedAt
         );
 
-        final Project returnProject = new Project(
+        when(mockedProjectEntityRepository.updateProject(projectId, null, "Test Name", "Test Description")).thenReturn(Optional.of(new ProjectVersion(4L, updatedAt)));
+        when(mockedProjectEntityRepository.findById(projectId)).thenReturn(Optional.of(storedEntity));
+        when(mockedProjectMapper.mapFromProjectEntity(storedEntity)).thenReturn(storedProject);
+
+        // when
+        final Project actualProject = projectService.updateProject(functionPayload, null);
+
+        // then
+        assertEquals(storedProject, actualProject);
+        verify(mockedProjectEntityRepository).updateProject(projectId, null, "Test Name", "Test Description");
+        verify(mockedProjectEntityRepository).findById(projectId);
+        verifyNoMoreInteractions(mockedProjectEntityRepository);
+    }
+
+    @Test
+    void shouldPatchOnlyGivenFields() {
+        // given
+        final UUID projectId = UUID.fromString(STATIC_UUID);
+        final ProjectEntity projectEntity = new ProjectEntity(projectId, "New Name", "Test Description", emptyList());
+        final Project project = new Project(projectId, "New Name", "Test Description", emptyList(), 5L, null);
+        when(mockedProjectEntityRepository.patchProject(projectId, 4L, Map.of("name", "New Name")))
+                .thenReturn(Optional.of(new ProjectVersion(5L, Instant.now())));
+        when(mockedProjectEntityRepository.findById(projectId)).thenReturn(Optional.of(projectEntity));
+        when(mockedProjectMapper.mapFromProjectEntity(projectEntity)).thenReturn(project);
+
+        // when
+        final Project actualProject = projectService.patchProject(projectId, Map.of("name", "New Name"), 4L);
+
+        // then
+        assertEquals(project, actualProject);
+        verify(mockedProjectEntityRepository).patchProject(projectId, 4L, Map.of("name", "New Name"));
+    }
+
+    @Test
+    void shouldClearFieldsSetToNullByPatch() {
+        // given
+        final UUID projectId = UUID.fromString(STATIC_UUID);
+        final Map<String, Object> patch = new HashMap<>();
+        patch.put("description", null);
+        final Map<String, String> expectedColumns = new HashMap<>();
+        expectedColumns.put("description", null);
+        when(mockedProjectEntityRepository.patchProject(projectId, null, expectedColumns))
+                .thenReturn(Optional.of(new ProjectVersion(1L, Instant.now())));
+        when(mockedProjectEntityRepository.findById(projectId))
+                .thenReturn(Optional.of(new ProjectEntity(projectId, "Test Name", null, emptyList())));
+
+        // when
+        projectService.patchProject(projectId, patch, null);
+
+        // then
+        verify(mockedProjectEntityRepository).patchProject(projectId, null, expectedColumns);
+    }
+
+    @Test
+    void shouldValidatePatchedFields() {
+        // given
+        final UUID projectId = UUID.fromString(STATIC_UUID);
+
+        // when
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> projectService.patchProject(projectId, Map.of("name", "X"), null));
+
+        // then
+        assertEquals(NOT_ACCEPTABLE, exception.getStatusCode());
+        assertTrue(exception.getReason().startsWith("name"));
+        verifyNoInteractions(mockedProjectEntityRepository);
+    }
+
+    @Test
+    void shouldNotPatchProjectMembers() {
+        // given
+        final UUID projectId = UUID.fromString(STATIC_UUID);
+
+        // when
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> projectService.patchProject(projectId, Map.of("projectMembers", emptyList()), null));
+
+        // then
+        assertEquals(NOT_ACCEPTABLE, exception.getStatusCode());
+        verifyNoInteractions(mockedProjectEntityRepository);
+    }
+
+    @Test
+    void shouldCheckIfProjectExistsOnUpdate() {
+        // given
+        final UUID projectId = UUID.fromString(STATIC_UUID);
+        final Project functionPayload = new Project(
                 projectId,
                 "Test Name",
                 "Test Description",
-                emptyList()
+                emptyList(),
+                null,
+                null
         );
-        final ProjectEntity retrievedEntity = new ProjectEntity(
+        when(mockedProjectEntityRepository.updateProject(projectId, null, "Test Name", "Test Description")).thenReturn(Optional.empty());
+
+        // when / then
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> projectService.updateProject(functionPayload, null));
+        assertEquals(NOT_FOUND, exception.getStatusCode());
+        verify(mockedProjectEntityRepository).updateProject(projectId, null, "Test Name", "Test Description");
+        verifyNoMoreInteractions(mockedProjectEntityRepository);
+    }
+
+    @Test
+    void shouldRejectUpdateOfStaleVersion() {
+        // given
+        final UUID projectId = UUID.fromString(STATIC_UUID);
+        final Project functionPayload = new Project(
                 projectId,
                 "Test Name",
                 "Test Description",
-                emptyList()
+                emptyList(),
+                null,
+                null
         );
-
-        when(mockedProjectEntityRepository.save(expectedEntityToSave)).thenReturn(retrievedEntity);
-        when(mockedProjectMapper.mapFromProjectEntity(retrievedEntity)).thenReturn(returnProject);
+        when(mockedProjectEntityRepository.updateProject(projectId, 2L, "Test Name", "Test Description")).thenReturn(Optional.empty());
         when(mockedProjectEntityRepository.existsById(projectId)).thenReturn(true);
 
+        // when / then
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> projectService.updateProject(functionPayload, 2L));
+        assertEquals(PRECONDITION_FAILED, exception.getStatusCode());
+        verify(mockedProjectEntityRepository).existsById(projectId);
+    }
+
+    @Test
+    void shouldReadOnlyTheVersionOfAProject() {
+        // given
+        final UUID projectId = UUID.fromString(STATIC_UUID);
+        final ProjectVersion projectVersion = new ProjectVersion(3L, Instant.parse("2023-09-01T12:00:00Z"));
+        when(mockedProjectEntityRepository.findVersionById(projectId)).thenReturn(Optional.of(projectVersion));
+
         // when
-        final Project actualProject = projectService.updateProject(functionPayload);
+        final ProjectVersion actualVersion = projectService.getProjectVersion(projectId);
 
         // then
-        assertEquals(returnProject, actualProject);
-        verify(mockedProjectEntityRepository).save(expectedEntityToSave);
-        verify(mockedProjectMapper).mapFromProjectEntity(retrievedEntity);
+        assertEquals(projectVersion, actualVersion);
+        verify(mockedProjectEntityRepository).findVersionById(projectId);
+        verifyNoMoreInteractions(mockedProjectEntityRepository);
+        verifyNoInteractions(mockedProjectMapper);
     }
 
     @Test
-    void shouldCheckIfProjectExistsOnUpdate() {
+    void shouldThrowNotFoundExceptionWhenVersionOfUnknownProjectIsRequested() {
         // given
         final UUID projectId = UUID.fromString(STATIC_UUID);
-        final Project functionPayload = new Project(
-                projectId,
-                "Test Name",
-                "Test Description",
-                emptyList()
-        );
-        when(mockedProjectEntityRepository.existsById(projectId)).thenReturn(false);
+        when(mockedProjectEntityRepository.findVersionById(projectId)).thenReturn(Optional.empty());
 
         // when / then
-        assertThrows(ResponseStatusException.class, () -> projectService.updateProject(functionPayload));
-        verify(mockedProjectEntityRepository).existsById(projectId);
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> projectService.getProjectVersion(projectId));
+        assertEquals(NOT_FOUND, exception.getStatusCode());
     }
 
     @Test
@@ -224,13 +494,17 @@ class ProjectServiceTest {
                 projectId,
                 "Test Name",
                 "Test Description",
-                emptyList()
+                emptyList(),
+                null,
+                null
         );
         final Project mappedProject = new Project(
                 projectId,
                 "Test Name",
                 "Test Description",
-                emptyList()
+                emptyList(),
+                null,
+                null
         );
         final ProjectEntity projectEntity = new ProjectEntity(
                 projectId,
@@ -269,4 +543,30 @@ class ProjectServiceTest {
         verifyNoMoreInteractions(mockedProjectEntityRepository);
         verifyNoMoreInteractions(mockedProjectMapper);
     }
+
+    @Test
+    void shouldDeleteProjectByIdWithoutLoadingIt() {
+        // given
+        final UUID projectId = UUID.fromString(STATIC_UUID);
+        when(mockedProjectEntityRepository.deleteProjects(List.of(projectId))).thenReturn(List.of(projectId));
+
+        // when
+        projectService.deleteProjectById(projectId);
+
+        // then
+        verify(mockedProjectEntityRepository).deleteProjects(List.of(projectId));
+        verifyNoMoreInteractions(mockedProjectEntityRepository);
+        verifyNoInteractions(mockedProjectMapper);
+    }
+
+    @Test
+    void shouldThrowNotFoundExceptionWhenProjectToBeDeletedByIdIsNotInRepo() {
+        // given
+        final UUID projectId = UUID.fromString(STATIC_UUID);
+        when(mockedProjectEntityRepository.deleteProjects(List.of(projectId))).thenReturn(emptyList());
+
+        // when / then
+        final ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> projectService.deleteProjectById(projectId));
+        assertEquals(NOT_FOUND, exception.getStatusCode());
+    }
 }
@@ -0,0 +1,117 @@
+package de.tfdw.example.service;
+
+import de.tfdw.example.dto.ProjectChange;
+import de.tfdw.example.dto.ProjectStats;
+import de.tfdw.example.repository.ProjectEntityRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.openMocks;
+
+class ProjectStatsServiceTest {
+
+    private static final UUID PROJECT_ID = UUID.fromString("093e047e-b4ab-4053-87db-46c795426191");
+
+    private AutoCloseable autoCloseable;
+    @Mock
+    private ProjectEntityRepository mockedProjectEntityRepository;
+    @Mock
+    private PlatformTransactionManager mockedTransactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        autoCloseable = openMocks(this);
+        when(mockedProjectEntityRepository.findStats()).thenReturn(ProjectStats.of(4, 6, 8));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        autoCloseable.close();
+    }
+
+    @Test
+    void shouldCountOncePerTimeToLive() {
+        // given
+        final ProjectStatsService projectStatsService = projectStatsService(Duration.ofMinutes(1));
+
+        // when
+        projectStatsService.getStats();
+        final ProjectStats stats = projectStatsService.getStats();
+
+        // then
+        assertEquals(new ProjectStats(4, 6, 8, 2.0), stats);
+        verify(mockedProjectEntityRepository, times(1)).findStats();
+    }
+
+    @Test
+    void shouldCountAgainOnceExpired() {
+        // given
+        final ProjectStatsService projectStatsService = projectStatsService(Duration.ZERO);
+
+        // when
+        projectStatsService.getStats();
+        projectStatsService.getStats();
+
+        // then
+        verify(mockedProjectEntityRepository, times(2)).findStats();
+    }
+
+    @Test
+    void shouldAdjustProjectCountOnCreateAndDelete() {
+        // given
+        final ProjectStatsService projectStatsService = projectStatsService(Duration.ofMinutes(1));
+        projectStatsService.getStats();
+
+        // when
+        projectStatsService.onProjectChange(ProjectChange.created(PROJECT_ID, 0L));
+        projectStatsService.onProjectChange(ProjectChange.created(UUID.randomUUID(), 0L));
+        projectStatsService.onProjectChange(ProjectChange.updated(PROJECT_ID, 1L));
+        projectStatsService.onProjectChange(ProjectChange.deleted(PROJECT_ID, 1L));
+
+        // then
+        assertEquals(new ProjectStats(5, 6, 8, 2.0), projectStatsService.getStats());
+        verify(mockedProjectEntityRepository, times(1)).findStats();
+    }
+
+    @Test
+    void shouldKeepChangesCommittedWhileCounting() {
+        // given
+        final ProjectStatsService projectStatsService = projectStatsService(Duration.ofMinutes(1));
+        when(mockedProjectEntityRepository.findStats()).thenAnswer(invocation -> {
+            // committed after the count took its snapshot of the tables
+            projectStatsService.onProjectChange(ProjectChange.created(PROJECT_ID, 0L));
+            return ProjectStats.of(4, 6, 8);
+        });
+
+        // when
+        final ProjectStats stats = projectStatsService.getStats();
+
+        // then
+        assertEquals(5, stats.projectCount());
+        assertEquals(5, projectStatsService.getStats().projectCount());
+        verify(mockedProjectEntityRepository, times(1)).findStats();
+    }
+
+    @Test
+    void shouldReportNoAverageWithoutProjects() {
+        assertEquals(0, ProjectStats.of(0, 3, 0).averageMembersPerProject());
+    }
+
+    private ProjectStatsService projectStatsService(final Duration timeToLive) {
+        return new ProjectStatsService(mockedProjectEntityRepository, mockedTransactionManager, meterRegistry, timeToLive,
+                Duration.ofSeconds(5));
+    }
+}
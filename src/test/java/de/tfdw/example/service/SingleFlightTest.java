@@ -0,0 +1,156 @@
+package de.tfdw.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 20;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldShareOneLoadBetweenConcurrentCallers() throws Exception {
+        // given
+        final SingleFlight<String, Object> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(5), meterRegistry);
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch releaseLoad = new CountDownLatch(1);
+        final AtomicInteger loads = new AtomicInteger();
+        final Object value = new Object();
+
+        // when
+        final List<Future<Object>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(executor.submit(() -> singleFlight.load("key", () -> {
+                loads.incrementAndGet();
+                loadStarted.countDown();
+                await(releaseLoad);
+                return value;
+            })));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.load("key", () -> {
+                    loads.incrementAndGet();
+                    return new Object();
+                })));
+            }
+            awaitWaitingCallers(CALLERS - 1);
+            releaseLoad.countDown();
+        }
+
+        // then
+        assertEquals(1, loads.get());
+        for (final Future<Object> result : results) {
+            assertSame(value, result.get());
+        }
+        assertEquals(1.0, meterRegistry.get("project.single-flight.calls").tag("outcome", "loaded").counter().count());
+        assertEquals(CALLERS - 1, meterRegistry.get("project.single-flight.calls").tag("outcome", "coalesced").counter().count());
+        assertEquals(0.0, meterRegistry.get("project.single-flight.in-flight").gauge().value());
+    }
+
+    @Test
+    void shouldShareTheExceptionOfTheLoad() throws Exception {
+        // given
+        final SingleFlight<String, Object> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(5), meterRegistry);
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch releaseLoad = new CountDownLatch(1);
+
+        // when
+        final Future<Object> loading;
+        final Future<Object> waiting;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            loading = executor.submit(() -> singleFlight.load("key", () -> {
+                loadStarted.countDown();
+                await(releaseLoad);
+                throw new ResponseStatusException(NOT_FOUND);
+            }));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            waiting = executor.submit(() -> singleFlight.load("key", Object::new));
+            awaitWaitingCallers(1);
+            releaseLoad.countDown();
+        }
+
+        // then
+        assertEquals(NOT_FOUND, statusOf(assertThrows(ExecutionException.class, loading::get)));
+        assertEquals(NOT_FOUND, statusOf(assertThrows(ExecutionException.class, waiting::get)));
+    }
+
+    @Test
+    void shouldGiveUpWaitingAfterTheTimeout() throws Exception {
+        // given
+        final SingleFlight<String, Object> singleFlight = new SingleFlight<>("test", Duration.ofMillis(50), meterRegistry);
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch releaseLoad = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> singleFlight.load("key", () -> {
+                loadStarted.countDown();
+                await(releaseLoad);
+                return new Object();
+            }));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+
+            // when
+            final ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                    () -> singleFlight.load("key", Object::new));
+
+            // then
+            assertEquals(SERVICE_UNAVAILABLE, exception.getStatusCode());
+            assertEquals(1.0, meterRegistry.get("project.single-flight.calls").tag("outcome", "timed-out").counter().count());
+            releaseLoad.countDown();
+        }
+    }
+
+    @Test
+    void shouldLoadAgainOnceTheLoadCompleted() {
+        // given
+        final SingleFlight<String, Object> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(5), meterRegistry);
+        final AtomicInteger loads = new AtomicInteger();
+
+        // when
+        singleFlight.load("key", loads::incrementAndGet);
+        singleFlight.load("key", loads::incrementAndGet);
+
+        // then
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * Waiting callers are not observable, so this only gives them time to reach the in-flight load.
+     */
+    private static void awaitWaitingCallers(final int callers) throws InterruptedException {
+        Thread.sleep(100L + callers * 5L);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Object statusOf(final ExecutionException exception) {
+        return assertInstanceOf(ResponseStatusException.class, exception.getCause()).getStatusCode();
+    }
+}